@@ -23,6 +23,7 @@ import org.gradle.api.provider.Property;
 import org.gradle.api.services.ServiceReference;
 import org.gradle.api.tasks.*;
 import org.javagi.JavaGI;
+import org.javagi.configuration.GeneratorOptions;
 import org.javagi.configuration.ModuleInfo;
 import org.jspecify.annotations.NullMarked;
 
@@ -53,6 +54,21 @@ public abstract class GenerateSources extends DefaultTask {
     @OutputDirectory
     public abstract DirectoryProperty getOutputDirectory();
 
+    @Input
+    public abstract Property<Boolean> getLazyLinking();
+
+    @Input
+    public abstract Property<Boolean> getSharedTrampolines();
+
+    @Input
+    public abstract Property<Boolean> getScratchArenas();
+
+    @Input
+    public abstract Property<Boolean> getBytesAsSegments();
+
+    @Input
+    public abstract Property<Boolean> getCopyIntoArrays();
+
     @TaskAction
     void execute() {
         try {
@@ -60,6 +76,11 @@ public abstract class GenerateSources extends DefaultTask {
             var girFiles = ModuleInfo.getGirFilesForModule(getProjectName().get());
             var library = buildService.getLibrary(girFiles);
             var outputDirectory = getOutputDirectory().get().getAsFile();
+            GeneratorOptions.LAZY_LINKING = getLazyLinking().get();
+            GeneratorOptions.SHARED_TRAMPOLINES = getSharedTrampolines().get();
+            GeneratorOptions.SCRATCH_ARENAS = getScratchArenas().get();
+            GeneratorOptions.BYTES_AS_SEGMENTS = getBytesAsSegments().get();
+            GeneratorOptions.COPY_INTO_ARRAYS = getCopyIntoArrays().get();
             for (String repo : girFiles) {
                 String name = repo.substring(0, repo.indexOf('-'));
                 library.setExported(name);
@@ -48,6 +48,11 @@ val generateSources = tasks.register<GenerateSources>("generateSources") {
     projectName = project.name
     mainJavaSourcesDirectory = layout.projectDirectory.dir("src/main/java")
     outputDirectory = layout.buildDirectory.dir("generated/sources/java-gi")
+    lazyLinking = providers.gradleProperty("javagi.lazyLinking").map { it.toBoolean() }.orElse(false)
+    sharedTrampolines = providers.gradleProperty("javagi.sharedTrampolines").map { it.toBoolean() }.orElse(false)
+    scratchArenas = providers.gradleProperty("javagi.scratchArenas").map { it.toBoolean() }.orElse(false)
+    bytesAsSegments = providers.gradleProperty("javagi.bytesAsSegments").map { it.toBoolean() }.orElse(false)
+    copyIntoArrays = providers.gradleProperty("javagi.copyIntoArrays").map { it.toBoolean() }.orElse(false)
 }
 
 // Add the generated sources to the main sourceSet
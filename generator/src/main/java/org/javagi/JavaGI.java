@@ -22,6 +22,7 @@ package org.javagi;
 import org.javagi.gir.Enumeration;
 import org.javagi.javapoet.JavaFile;
 import org.javagi.javapoet.TypeSpec;
+import org.javagi.configuration.GeneratorOptions;
 import org.javagi.configuration.ModuleInfo;
 import org.javagi.gir.*;
 import org.javagi.metadata.Matcher;
@@ -67,6 +68,27 @@ import static java.util.stream.Collectors.joining;
         description = "Generate Java bindings from GObject-Introspection repository (gir) files.")
 public class JavaGI implements Callable<Integer> {
 
+    @CommandLine.Option(
+            names = {"-a", "--scratch-arenas"},
+            description = "allocate temporary memory in a per-thread " +
+                          "scratch buffer"
+    )
+    private boolean scratchArenas;
+
+    @CommandLine.Option(
+            names = {"-b", "--bytes-as-segments"},
+            description = "marshal GBytes as a MemorySegment instead of " +
+                          "copying it to a byte[]"
+    )
+    private boolean bytesAsSegments;
+
+    @CommandLine.Option(
+            names = {"-c", "--copy-into-arrays"},
+            description = "generate overloads that copy returned arrays " +
+                          "into a caller-provided array"
+    )
+    private boolean copyIntoArrays;
+
     @CommandLine.Option(
             names = {"-d", "--domain"},
             paramLabel = "domain",
@@ -74,6 +96,13 @@ public class JavaGI implements Callable<Integer> {
                           "and module name, for example \"org.gnome\"")
     private String domain;
 
+    @CommandLine.Option(
+            names = {"-l", "--lazy-linking"},
+            description = "link native functions on first use, instead of " +
+                          "during class initialization"
+    )
+    private boolean lazyLinking;
+
     @CommandLine.Option(
             names = {"-o", "--output"},
             paramLabel = "dir",
@@ -100,6 +129,13 @@ public class JavaGI implements Callable<Integer> {
                           "javadoc of the generated Java package")
     private String summary;
 
+    @CommandLine.Option(
+            names = {"-t", "--shared-trampolines"},
+            description = "connect signals and pass notified and async " +
+                          "callbacks with one shared upcall stub per callback type"
+    )
+    private boolean sharedTrampolines;
+
     @CommandLine.Option(
             names = {"-u", "--doc-url"},
             paramLabel = "url",
@@ -164,6 +200,12 @@ public class JavaGI implements Callable<Integer> {
         // Do not generate runtime platform checks
         Platform.GENERATE_PLATFORM_CHECKS = false;
 
+        GeneratorOptions.LAZY_LINKING = lazyLinking;
+        GeneratorOptions.SHARED_TRAMPOLINES = sharedTrampolines;
+        GeneratorOptions.SCRATCH_ARENAS = scratchArenas;
+        GeneratorOptions.BYTES_AS_SEGMENTS = bytesAsSegments;
+        GeneratorOptions.COPY_INTO_ARRAYS = copyIntoArrays;
+
         // Load included gir files
         var library = loadIncludedGirFiles();
 
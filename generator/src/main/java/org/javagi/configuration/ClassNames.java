@@ -33,6 +33,8 @@ public final class ClassNames {
     private static final String PKG_GTK_TYPES       = "org.javagi.gtk.types";
 
     public static final ClassName ALIAS = get(PKG_BASE, "Alias");
+    public static final ClassName INT_ALIAS = get(PKG_BASE, "IntAlias");
+    public static final ClassName LONG_ALIAS = get(PKG_BASE, "LongAlias");
     public static final ClassName CONSTANTS = get(PKG_BASE, "Constants");
     public static final ClassName ENUMERATION = get(PKG_BASE, "Enumeration");
     public static final ClassName EXCEPTION_HANDLER = get(PKG_BASE, "ExceptionHandler");
@@ -49,7 +51,11 @@ public final class ClassNames {
     public static final ClassName ARENA_CLOSE_ACTION = get(PKG_INTEROP, "ArenaCloseAction");
     public static final ClassName MEMORY_CLEANER = get(PKG_INTEROP, "MemoryCleaner");
     public static final ClassName INTEROP = get(PKG_INTEROP, "Interop");
+    public static final ClassName INTERNED_STRINGS = get(PKG_INTEROP, "InternedStrings");
     public static final ClassName PLATFORM = get(PKG_INTEROP, "Platform");
+    public static final ClassName SCRATCH_ARENA = get(PKG_INTEROP, "ScratchArena");
+    public static final ClassName SLAB_ALLOCATOR = get(PKG_INTEROP, "SlabAllocator");
+    public static final ClassName TRAMPOLINES = get(PKG_INTEROP, "Trampolines");
     public static final ClassName VARIANTS = get(PKG_INTEROP, "Variants");
 
     public static final ClassName AUTO_CLOSEABLE = get(PKG_GIO, "AutoCloseable");
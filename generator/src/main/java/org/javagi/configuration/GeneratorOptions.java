@@ -0,0 +1,62 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.configuration;
+
+/**
+ * Options that change the generated code. They are set from the command-line
+ * arguments of the {@code java-gi} tool, or from the {@code GenerateSources}
+ * task in the Gradle build.
+ */
+public final class GeneratorOptions {
+
+    /**
+     * Link native functions when they are called for the first time, instead
+     * of linking all functions of a type during class initialization.
+     */
+    public static boolean LAZY_LINKING = false;
+
+    /**
+     * Connect signals, and pass callbacks with notified or async scope, with
+     * one shared upcall stub for each callback type, instead of creating a
+     * new upcall stub for every connection or call.
+     */
+    public static boolean SHARED_TRAMPOLINES = false;
+
+    /**
+     * Allocate temporary memory during a native function call in a per-thread
+     * scratch buffer, instead of in a new confined arena.
+     */
+    public static boolean SCRATCH_ARENAS = false;
+
+    /**
+     * Marshal GBytes from and to a {@code MemorySegment} without copying the
+     * data, instead of copying it from and to a {@code byte[]}.
+     */
+    public static boolean BYTES_AS_SEGMENTS = false;
+
+    /**
+     * Generate an overload for functions that return an array of primitive
+     * values, that copies the elements into a caller-provided array.
+     */
+    public static boolean COPY_INTO_ARRAYS = false;
+
+    private GeneratorOptions() {
+    }
+}
@@ -76,8 +76,7 @@ public class AliasGenerator extends RegisteredTypeGenerator {
         }
 
         else if (alias.isValueWrapper())
-            builder.superclass(ParameterizedTypeName.get(
-                            ClassNames.ALIAS, alias.anyType().typeName().box()))
+            builder.superclass(aliasSuperclass(alias.anyType().typeName()))
                     .addMethod(valueConstructor(alias.anyType().typeName()))
                     .addMethod(arrayConstructor(alias.anyType()));
 
@@ -98,6 +97,19 @@ public class AliasGenerator extends RegisteredTypeGenerator {
         return builder.addModifiers(Modifier.PUBLIC).build();
     }
 
+    /**
+     * Get the superclass for an alias of a primitive value. Aliases for int
+     * and long values (such as GType and GQuark) store the value in a
+     * primitive field.
+     */
+    private static TypeName aliasSuperclass(TypeName typeName) {
+        if (TypeName.INT.equals(typeName))
+            return ClassNames.INT_ALIAS;
+        if (TypeName.LONG.equals(typeName))
+            return ClassNames.LONG_ALIAS;
+        return ParameterizedTypeName.get(ClassNames.ALIAS, typeName.box());
+    }
+
     private MethodSpec valueConstructor(TypeName typeName) {
         return MethodSpec.constructorBuilder()
                 .addJavadoc("Create a new $L with the provided value",
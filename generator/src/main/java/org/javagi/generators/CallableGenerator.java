@@ -38,10 +38,27 @@ public class CallableGenerator {
 
     private final Callable callable;
 
+    // Take bitfield parameters as int masks instead of sets
+    private boolean flagsAsInt;
+
     public CallableGenerator(Callable callable) {
         this.callable = callable;
     }
 
+    void setFlagsAsInt(boolean flagsAsInt) {
+        this.flagsAsInt = flagsAsInt;
+    }
+
+    /**
+     * Check whether the value is a bitfield that can be passed as an
+     * {@code int} mask.
+     */
+    static boolean isFlagsMask(TypedValue v) {
+        return v.isBitfield()
+                && !(v instanceof Parameter p && p.isOutParameter())
+                && !(v.anyType() instanceof Type t && t.isPointer());
+    }
+
     CodeBlock generateFunctionDescriptorDeclaration() {
         return CodeBlock.of("$T _fdesc = $L", FunctionDescriptor.class, generateFunctionDescriptor());
     }
@@ -116,6 +133,8 @@ public class CallableGenerator {
             if (p.varargs()) {
                 builder.addParameter(nullable(ArrayTypeName.of(nullable(Object.class))), "varargs");
                 builder.varargs(true);
+            } else if (flagsAsInt && isFlagsMask(p)) {
+                builder.addParameter(TypeName.INT, new TypedValueGenerator(p).getName());
             } else {
                 var generator = new TypedValueGenerator(p);
                 var type = generator.getAnnotatedType(useActualType);
@@ -168,6 +187,12 @@ public class CallableGenerator {
             var generator = new TypedValueGenerator(p);
             var name = generator.getName();
 
+            // An int mask is passed as-is
+            if (flagsAsInt && isFlagsMask(p)) {
+                stmt.add(name);
+                continue;
+            }
+
             // Generate null-check. But don't null-check parameters that are
             // hidden from the Java API, or primitive values
             boolean nullCheck = generator.checkNull();
@@ -189,13 +214,25 @@ public class CallableGenerator {
                 var notify = parameters.parameters().stream()
                         .filter(q -> q.destroy() == p)
                         .findAny();
-                if (notify.isPresent()) {
+                if (notify.isPresent() && TypedValueGenerator.usesTrampoline(notify.get())) {
+                    stmt.add("$T.UNREGISTER_SYM", ClassNames.TRAMPOLINES);
+                } else if (notify.isPresent()) {
                     stmt.add("$T.CLOSE_CB_SYM", ClassNames.ARENAS);
                 } else {
                     stmt.add("$T.NULL", MemorySegment.class);
                 }
             }
 
+            // User_data for a callback with a shared trampoline
+            else if (p.isUserDataParameter()
+                    && TypedValueGenerator.usesTrampoline(p.getRelatedCallbackParameter())) {
+                var cbParam = p.getRelatedCallbackParameter();
+                var cbName = new TypedValueGenerator(cbParam).getName();
+                stmt.add("($1T) ($2L == null ? $1T.NULL : $3T.$4L($2L))",
+                        MemorySegment.class, cbName, ClassNames.TRAMPOLINES,
+                        cbParam.scope() == Scope.ASYNC ? "registerAsync" : "register");
+            }
+
             // User_data for destroy_notify
             else if (p.isUserDataParameterForDestroyNotify()) {
                 var cbParam = p.getRelatedCallbackParameter();
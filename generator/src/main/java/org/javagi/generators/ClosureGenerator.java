@@ -19,11 +19,14 @@
 
 package org.javagi.generators;
 
+import org.javagi.javapoet.ArrayTypeName;
 import org.javagi.javapoet.CodeBlock;
 import org.javagi.javapoet.MethodSpec;
+import org.javagi.javapoet.ParameterizedTypeName;
 import org.javagi.javapoet.TypeName;
 import org.javagi.javapoet.TypeSpec;
 import org.javagi.configuration.ClassNames;
+import org.javagi.configuration.GeneratorOptions;
 import org.javagi.util.GeneratedAnnotationBuilder;
 import org.javagi.gir.*;
 
@@ -35,9 +38,8 @@ import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodType;
 import java.util.List;
-import java.util.Objects;
 
 import static org.javagi.util.Conversions.*;
 import static java.util.Comparator.comparing;
@@ -72,6 +74,13 @@ public class ClosureGenerator {
         if (closure.hasLong())
             builder.addMethod(generateUpcallMethod(name, "upcall_w64", "run", true));
 
+        if (closure instanceof Signal && GeneratorOptions.SHARED_TRAMPOLINES)
+            builder.addMethod(generateTrampolineMethod(name));
+
+        if (closure instanceof Callback cb && cb.parent() instanceof Namespace
+                && cb.userDataIndex() >= 0 && GeneratorOptions.SHARED_TRAMPOLINES)
+            builder.addMethod(generateTrampolineMethod(name));
+
         if (closure.deprecated())
             builder.addAnnotation(Deprecated.class);
 
@@ -108,6 +117,10 @@ public class ClosureGenerator {
     MethodSpec generateUpcallMethod(String methodName, String name, String methodToInvoke, boolean longAsInt) {
         boolean returnsVoid = returnValue.anyType().isVoid();
 
+        // Virtual method overrides invoke a method handle that is bound to
+        // the upcall stub, and has been adapted to the exact parameter types
+        boolean exact = methodToInvoke.endsWith("invokeExact");
+
         // Method name and return type
         MethodSpec.Builder upcall = MethodSpec.methodBuilder(name)
                 .returns(returnsVoid
@@ -127,6 +140,10 @@ public class ClosureGenerator {
         else
             upcall.addModifiers(Modifier.PRIVATE);
 
+        // Add the method handle parameter to the virtual method upcall
+        if (exact)
+            upcall.addParameter(MethodHandle.class, "_method");
+
         // Add source parameter to signal callback method
         if (closure instanceof Signal signal) {
             String paramName = "source" + toCamelCase(signal.parent().name(), true);
@@ -148,10 +165,6 @@ public class ClosureGenerator {
         // Try-catch block for uncaught exceptions
         upcall.beginControlFlow("try");
 
-        // Null-check the Method field
-        if (methodToInvoke.endsWith("invoke"))
-            upcall.addStatement("$T.requireNonNull($L, $S)", Objects.class, methodName, "No method override");
-
         /*
          * In the upcall method, memory allocations are only necessary for
          * memory segments that are returned back to the caller. Therefore,
@@ -178,12 +191,12 @@ public class ClosureGenerator {
         CodeBlock.Builder invoke = CodeBlock.builder();
         if (!returnsVoid) {
             invoke.add("var _result = ");
-            if (methodToInvoke.endsWith("invoke"))
+            if (exact)
                 invoke.add("($T) ", new TypedValueGenerator(returnValue).getType());
         }
         invoke.add(methodToInvoke)
               .add("(")
-              .add(marshalParameters(methodToInvoke, longAsInt))
+              .add(marshalParameters(longAsInt, exact))
               .add(")");
         upcall.addStatement(invoke.build());
 
@@ -212,34 +225,16 @@ public class ClosureGenerator {
             upcall.addStatement("return $L",
                     new TypedValueGenerator(returnValue).marshalJavaToNative(CodeBlock.of("_result")));
 
-        // Catch exceptions and set the GError** value
+        // Catch exceptions and set the GError** value. A MethodHandle
+        // throws the exception directly, it is not wrapped.
         if (closure.throws_()) {
-            if (methodToInvoke.endsWith("invoke")) {
-                upcall.nextControlFlow("catch ($T _ite)", InvocationTargetException.class)
-                      .beginControlFlow("if (_ite.getCause() instanceof $T _ge)", ClassNames.GERROR_EXCEPTION);
-            } else {
-                upcall.nextControlFlow("catch ($T _ge)", ClassNames.GERROR_EXCEPTION);
-            }
+            upcall.nextControlFlow("catch ($T _ge)", ClassNames.GERROR_EXCEPTION);
             upcall.addStatement("_gerrorPointer.set($T.ADDRESS, 0, _ge.toGErrorUnowned().handle())", ValueLayout.class);
             if (!returnsVoid)
                 returnNull(upcall);
-            if (methodToInvoke.endsWith("invoke")) {
-                upcall.nextControlFlow("else")
-                      .addStatement("throw _ite")
-                      .endControlFlow();
-            }
             upcall.endControlFlow();
         }
 
-        // Catch exceptions from reflection calls
-        if (methodToInvoke.endsWith("invoke")) {
-            upcall.nextControlFlow("catch ($T _ite)",
-                    InvocationTargetException.class);
-            upcall.addStatement("$T.handleException(_ite, $S)", ClassNames.EXCEPTION_HANDLER, methodName);
-            if (!returnsVoid)
-                returnNull(upcall);
-        }
-
         // Catch other exceptions
         upcall.nextControlFlow("catch ($T _t)", Throwable.class);
         upcall.addStatement("$T.handleException(_t, $S)", ClassNames.EXCEPTION_HANDLER, methodName);
@@ -256,7 +251,33 @@ public class ClosureGenerator {
                 || p.isArrayLengthParameter();
     }
 
-    private CodeBlock marshalParameters(String methodToInvoke, boolean longAsInt) {
+    /**
+     * Generate a {@code MethodType} with the Java types of the closure
+     * parameters and return value. It is the type of the
+     * {@code invokeExact} call in the upcall method of a virtual method
+     * override.
+     */
+    CodeBlock generateMethodType() {
+        CodeBlock.Builder type = CodeBlock.builder()
+                .add("$T.methodType($T.class", MethodType.class,
+                        erasure(new TypedValueGenerator(returnValue).getType()));
+        if (closure.parameters() != null)
+            for (Parameter p : closure.parameters().parameters())
+                if (!isHiddenParameter(p))
+                    type.add(", $T.class", erasure(new TypedValueGenerator(p).getType()));
+        return type.add(")").build();
+    }
+
+    // The erased type, for use in a class literal
+    private static TypeName erasure(TypeName typeName) {
+        return switch (typeName.withoutAnnotations()) {
+            case ParameterizedTypeName p -> p.rawType;
+            case ArrayTypeName a -> ArrayTypeName.of(erasure(a.componentType));
+            case TypeName t -> t;
+        };
+    }
+
+    private CodeBlock marshalParameters(boolean longAsInt, boolean exact) {
         CodeBlock.Builder stmt = CodeBlock.builder();
 
         if (closure.parameters() == null)
@@ -282,51 +303,47 @@ public class ClosureGenerator {
             else
                 stmt.add(",$W");
 
-            if (p.anyType() instanceof Type t && t.isUnannotatedReference()) {
-                stmt.add(toJavaIdentifier(p.name()));
-                continue;
-            }
+            // Cast to the exact type of the method handle
+            if (exact)
+                stmt.add("($T) ($L)", erasure(new TypedValueGenerator(p).getType()),
+                        marshalParameter(p, i == last, longAsInt));
+            else
+                stmt.add(marshalParameter(p, i == last, longAsInt));
+        }
+        return stmt.build();
+    }
 
-            if (p.anyType() instanceof Type t
-                    && t.isPointer()
-                    && t.lookup() instanceof Alias a
-                    && a.isValueWrapper()) {
-                stmt.add("_$LAlias", toJavaIdentifier(p.name()));
-                continue;
-            }
+    private CodeBlock marshalParameter(Parameter p, boolean last, boolean longAsInt) {
+        if (p.anyType() instanceof Type t && t.isUnannotatedReference())
+            return CodeBlock.of("$L", toJavaIdentifier(p.name()));
 
-            if (p.isOutParameter()) {
-                stmt.add("_$LOut", toJavaIdentifier(p.name()));
-                continue;
-            }
+        if (p.anyType() instanceof Type t
+                && t.isPointer()
+                && t.lookup() instanceof Alias a
+                && a.isValueWrapper())
+            return CodeBlock.of("_$LAlias", toJavaIdentifier(p.name()));
 
-            // For GInstanceInitFunc, retrieve the instance that is currently under construction
-            if (closure instanceof Callback cb && "GInstanceInitFunc".equals(cb.cType()) && "instance".equals(p.name())) {
-                stmt.add("$T.getForInstanceInit(instance, gClass)", ClassNames.INSTANCE_CACHE);
-                continue;
-            }
+        if (p.isOutParameter())
+            return CodeBlock.of("_$LOut", toJavaIdentifier(p.name()));
 
-            // Invoking a method using reflection calls Method.invoke() which is
-            // variadic. If the last parameter is an array, that will trigger a
-            // compiler warning, because it is unsure if the array should be
-            // treated as varargs or not.
-            if (i == last && methodToInvoke.endsWith("invoke"))
-                if (p.anyType() instanceof Array || (p.anyType() instanceof Type t && t.isActuallyAnArray()))
-                    stmt.add("($T) ", Object.class);
-
-            // This is unsupported; it generates a "null". Suppress the warning
-            // when it's the trailing parameter.
-            if (i == last && p.varargs())
-                stmt.add("($T) ", Object.class);
-
-            // Cast long parameters on linux/macos to int in Java
-            if (p.anyType() instanceof Type t && t.isLong() && !longAsInt)
-                stmt.add("(int) ");
-
-            stmt.add(new TypedValueGenerator(p)
-                    .marshalNativeToJava(CodeBlock.of(toJavaIdentifier(p.name())), true));
-        }
-        return stmt.build();
+        // For GInstanceInitFunc, retrieve the instance that is currently under construction
+        if (closure instanceof Callback cb && "GInstanceInitFunc".equals(cb.cType()) && "instance".equals(p.name()))
+            return CodeBlock.of("$T.getForInstanceInit(instance, gClass)", ClassNames.INSTANCE_CACHE);
+
+        CodeBlock.Builder stmt = CodeBlock.builder();
+
+        // This is unsupported; it generates a "null". Suppress the warning
+        // when it's the trailing parameter.
+        if (last && p.varargs())
+            stmt.add("($T) ", Object.class);
+
+        // Cast long parameters on linux/macos to int in Java
+        if (p.anyType() instanceof Type t && t.isLong() && !longAsInt)
+            stmt.add("(int) ");
+
+        return stmt.add(new TypedValueGenerator(p)
+                        .marshalNativeToJava(CodeBlock.of(toJavaIdentifier(p.name())), true))
+                .build();
     }
 
     private void returnNull(MethodSpec.Builder upcall) {
@@ -366,4 +383,34 @@ public class ClosureGenerator {
                         Linker.class)
                 .build();
     }
+
+    MethodSpec generateTrampolineMethod(String className) {
+        var spec = MethodSpec.methodBuilder("trampoline")
+                .addJavadoc("""
+                        Returns the shared native function pointer for this callback type.
+                        It runs the {@link #upcall} method of the callback instance that
+                        is registered in the {@link $T} table under the {@code user_data}
+                        pointer.
+                        
+                        @return the native function pointer
+                        """, ClassNames.TRAMPOLINES)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(MemorySegment.class);
+
+        // The user_data pointer of a signal is appended to the parameters. A
+        // callback has a user_data parameter.
+        CodeBlock userData = closure instanceof Callback cb
+                ? CodeBlock.of("$L,$W", cb.userDataIndex())
+                : CodeBlock.of("");
+        if (closure.hasLong())
+            spec.addStatement("return $T.trampoline($T.lookup(), $L.class, $T.longAsInt() ? $S : $S,$W$L() -> $L)",
+                    ClassNames.TRAMPOLINES, MethodHandles.class, className,
+                    ClassNames.INTEROP, "upcall_w64", "upcall", userData,
+                    generator.generateFunctionDescriptor());
+        else
+            spec.addStatement("return $T.trampoline($T.lookup(), $L.class, $S,$W$L() -> $L)",
+                    ClassNames.TRAMPOLINES, MethodHandles.class, className,
+                    "upcall", userData, generator.generateFunctionDescriptor());
+        return spec.build();
+    }
 }
@@ -68,7 +68,9 @@ public class EnumGenerator extends RegisteredTypeGenerator {
 
         if (en instanceof Bitfield)
             builder.addMethod(staticFlagsConstructor())
-                   .addMethod(addressSetConstructor());
+                   .addMethod(addressSetConstructor())
+                   .addMethod(toIntMethod())
+                   .addMethod(isSetInMethod());
         else
             builder.addMethod(addressConstructor());
 
@@ -203,11 +205,42 @@ public class EnumGenerator extends RegisteredTypeGenerator {
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                 .returns(ParameterizedTypeName.get(ClassName.get(Set.class), en.typeName()))
                 .addParameter(TypeName.INT, "flags")
-                .addStatement("return $1T.intToEnumSet($2T.class, $2T::ofFlag, flags)",
+                .addStatement("return $1T.intToEnumSet($2T.class, flags)",
                         ClassNames.INTEROP, en.typeName())
                 .build();
     }
 
+    private MethodSpec toIntMethod() {
+        return MethodSpec.methodBuilder("toInt")
+                .addJavadoc("""
+                        Create a bitfield for the provided {@code Set<$1L>}
+                        
+                        @param flags the set of $1L flags
+                        @return the bitfield for the provided flags
+                        """, toJavaSimpleType(en.name(), en.namespace()))
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(TypeName.INT)
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Set.class), en.typeName()), "flags")
+                .addStatement("return $T.enumSetToInt(flags)", ClassNames.INTEROP)
+                .build();
+    }
+
+    private MethodSpec isSetInMethod() {
+        return MethodSpec.methodBuilder("isSetIn")
+                .addJavadoc("""
+                        Check whether this flag is set in the provided bitfield,
+                        without creating a {@code Set<$1L>}
+                        
+                        @param flags the $1L bitfield
+                        @return whether all bits of this flag are set in the bitfield
+                        """, toJavaSimpleType(en.name(), en.namespace()))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.BOOLEAN)
+                .addParameter(TypeName.INT, "flags")
+                .addStatement("return (flags & value) == value")
+                .build();
+    }
+
     private MethodSpec addressConstructor() {
         return MethodSpec.methodBuilder("of")
                 .addJavadoc("""
@@ -236,7 +269,7 @@ public class EnumGenerator extends RegisteredTypeGenerator {
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                 .returns(ParameterizedTypeName.get(ClassName.get(Set.class), en.typeName()))
                 .addParameter(MemorySegment.class, "address")
-                .addStatement("return $1T.intToEnumSet($2T.class, $2T::ofFlag, (int) address.address())",
+                .addStatement("return $1T.intToEnumSet($2T.class, (int) address.address())",
                         ClassNames.INTEROP, en.typeName())
                 .build();
     }
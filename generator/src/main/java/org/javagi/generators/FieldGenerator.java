@@ -32,6 +32,7 @@ import javax.lang.model.element.Modifier;
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.invoke.VarHandle;
 
 import static org.javagi.util.Conversions.*;
@@ -257,8 +258,8 @@ public class FieldGenerator extends TypedValueGenerator {
                         
                         @return The value of the field `$1L`
                         """, f.name())
-                .beginControlFlow("try ($1T _arena = $1T.ofConfined())",
-                        Arena.class)
+                .beginControlFlow("try ($T _arena = $L)",
+                        Arena.class, MethodGenerator.newCallArena())
                 .addStatement("long _offset = getMemoryLayout().byteOffset($T.PathElement.groupElement($S))",
                         MemoryLayout.class, f.name())
                 .addStatement(CodeBlock.of("return $L",
@@ -308,10 +309,19 @@ public class FieldGenerator extends TypedValueGenerator {
                 .addModifiers(Modifier.PUBLIC)
                 .addParameter(Arena.class, "arena")
                 .addParameter(nullable(java.lang.reflect.Method.class), "method")
-                .addStatement("this._$LMethod = method", getName())
-                .addStatement(new CallableGenerator(cb).generateFunctionDescriptorDeclaration());
+                .beginControlFlow("if (method == null)")
+                .addStatement("$T.$L$Z.set(handle(), 0, $T.NULL)",
+                        f.parent().helperClass(), fieldName(), MemorySegment.class)
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement(new CallableGenerator(cb).generateFunctionDescriptorDeclaration())
+                .addStatement("$T _method = $T.unreflect(method).asType($L)",
+                        MethodHandle.class, ClassNames.INTEROP,
+                        new ClosureGenerator(cb).generateMethodType())
+                .addStatement("$T _type = _fdesc.toMethodType().insertParameterTypes(0, $T.class)",
+                        MethodType.class, MethodHandle.class);
         if (cb.hasLong())
-            spec.addStatement("$T _handle = $T.upcallHandle($T.lookup(), $T.class, $T.longAsInt() ? $S : $S, _fdesc)",
+            spec.addStatement("$T _handle = $T.upcallHandle($T.lookup(), $T.class, $T.longAsInt() ? $S : $S, _type)",
                     MethodHandle.class,
                     ClassNames.INTEROP,
                     MethodHandles.class,
@@ -320,16 +330,16 @@ public class FieldGenerator extends TypedValueGenerator {
                     getName() + "Upcall_w64",
                     getName() + "Upcall");
         else
-            spec.addStatement("$T _handle = $T.upcallHandle($T.lookup(), $T.class, $S, _fdesc)",
+            spec.addStatement("$T _handle = $T.upcallHandle($T.lookup(), $T.class, $S, _type)",
                     MethodHandle.class,
                     ClassNames.INTEROP,
                     MethodHandles.class,
                     f.parent().typeName(),
                     getName() + "Upcall");
-        return spec.addStatement("$T _address = $T.nativeLinker().upcallStub(_handle.bindTo(this), _fdesc, arena)",
-                        MemorySegment.class, Linker.class)
-                .addStatement("$T.$L$Z.set(handle(), 0, (method == null ? $T.NULL : _address))",
-                        f.parent().helperClass(), fieldName(), MemorySegment.class)
+        return spec.addStatement("$T _address = $T.nativeLinker().upcallStub($T.insertArguments(_handle, 0, this, _method), _fdesc, arena)",
+                        MemorySegment.class, Linker.class, MethodHandles.class)
+                .addStatement("$T.$L$Z.set(handle(), 0, _address)",
+                        f.parent().helperClass(), fieldName())
                 .build();
     }
 }
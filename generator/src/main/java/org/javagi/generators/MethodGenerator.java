@@ -22,12 +22,14 @@ package org.javagi.generators;
 import org.javagi.gir.Record;
 import org.javagi.javapoet.*;
 import org.javagi.configuration.ClassNames;
+import org.javagi.configuration.GeneratorOptions;
 import org.javagi.gir.*;
 import org.javagi.util.Conversions;
 import org.javagi.gir.Class;
 
 import javax.lang.model.element.Modifier;
 import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
@@ -46,6 +48,8 @@ public class MethodGenerator {
     private final boolean isConstructor;
     private final MethodSpec.Builder builder;
     private final CallableGenerator generator;
+    private boolean copyIntoArray;
+    private boolean flagsAsInt;
 
     public MethodGenerator(Callable func) {
         this(func, getName(func));
@@ -87,6 +91,81 @@ public class MethodGenerator {
         return false;
     }
 
+    /**
+     * Create the expression that opens the arena for memory allocations
+     * during a native function call.
+     */
+    static CodeBlock newCallArena() {
+        return GeneratorOptions.SCRATCH_ARENAS
+                ? CodeBlock.of("$T.open()", ClassNames.SCRATCH_ARENA)
+                : CodeBlock.of("$T.ofConfined()", Arena.class);
+    }
+
+    /**
+     * Check whether an overload can be generated that copies the returned
+     * array into a caller-provided array. This is possible for arrays of
+     * primitive values with a known size.
+     */
+    public static boolean hasCopyIntoArrayOverload(Callable func) {
+        return GeneratorOptions.COPY_INTO_ARRAYS
+                && !(func instanceof Constructor)
+                && func.returnValue().anyType() instanceof Array array
+                && array.name() == null
+                && array.anyType() instanceof Type type
+                && type.isPrimitive()
+                && array.sizeExpression(false) != null
+                && (func.parameters() == null || func.parameters().parameters().stream()
+                        .noneMatch(p -> "destination".equals(toJavaIdentifier(p.name()))));
+    }
+
+    /**
+     * Generate an overload of the method that copies the returned array into
+     * a caller-provided {@code destination} array, and returns the number of
+     * elements, or -1 when the function returned {@code NULL}.
+     */
+    public MethodSpec generateCopyIntoArrayOverload() {
+        copyIntoArray = true;
+        return generate();
+    }
+
+    /**
+     * Check whether an overload can be generated that takes and returns
+     * bitfields as {@code int} masks, so no {@code Set} is created. A method
+     * that only returns a bitfield cannot be overloaded, so its overload gets
+     * another name (see {@link #getFlagsAsIntName}), unless that name is
+     * already used.
+     */
+    public static boolean hasFlagsAsIntOverload(Callable func) {
+        if (!(func instanceof Method || func instanceof Function))
+            return false;
+        if (func.hasBitfieldParameters())
+            return true;
+        if (!CallableGenerator.isFlagsMask(func.returnValue()))
+            return false;
+        String name = getFlagsAsIntName(func);
+        return func.parent().children().stream()
+                .noneMatch(node -> node instanceof Callable c && name.equals(getName(c)));
+    }
+
+    /**
+     * Get the name of the overload with {@code int} masks: the same name when
+     * the method has bitfield parameters, or else the name with a "Mask"
+     * suffix.
+     */
+    public static String getFlagsAsIntName(Callable func) {
+        return func.hasBitfieldParameters() ? getName(func) : getName(func) + "Mask";
+    }
+
+    /**
+     * Generate an overload of the method that takes and returns bitfields
+     * as {@code int} masks instead of {@code Set}s.
+     */
+    public MethodSpec generateFlagsAsIntOverload() {
+        flagsAsInt = true;
+        generator.setFlagsAsInt(true);
+        return generate();
+    }
+
     public static boolean isGeneric(Callable func) {
         return func.parent() instanceof RegisteredType rt && rt.generic();
     }
@@ -126,13 +205,39 @@ public class MethodGenerator {
     public FieldSpec generateNamedDowncallHandle(Modifier... modifiers) {
         return FieldSpec.builder(MethodHandle.class, func.callableAttrs().cIdentifier(), modifiers)
                 .initializer(CodeBlock.builder()
-                    .add("$T.downcallHandle($Z$S,$W", ClassNames.INTEROP, func.callableAttrs().cIdentifier())
+                    .add("$T.$L($Z$S,$W",
+                            ClassNames.INTEROP,
+                            GeneratorOptions.LAZY_LINKING ? "lazyDowncallHandle" : "downcallHandle",
+                            func.callableAttrs().cIdentifier())
                     .add(generator.generateFunctionDescriptor())
                     .add(",$W$L)", generator.varargs())
                     .build())
                 .build();
     }
 
+    /**
+     * Generate a static field with the function descriptor that is used to
+     * call the parent implementation of the virtual method through a function
+     * pointer. This is only valid for methods that invoke a virtual method.
+     */
+    public FieldSpec generateFunctionDescriptor(Modifier... modifiers) {
+        return FieldSpec.builder(FunctionDescriptor.class, functionDescriptorName(vm), modifiers)
+                .initializer(generator.generateFunctionDescriptor())
+                .build();
+    }
+
+    /**
+     * Check whether the generated method will call a virtual method through
+     * a function pointer.
+     */
+    public boolean invokesVirtualMethod() {
+        return vm != null;
+    }
+
+    private static String functionDescriptorName(VirtualMethod vm) {
+        return vm.name() + "$fdesc";
+    }
+
     public MethodSpec generate() {
         // Javadoc
         if (func.infoElements().doc() != null) {
@@ -148,7 +253,9 @@ public class MethodGenerator {
         generator.generateModifiers(builder, isConstructor);
 
         // Return type
-        if (!isConstructor) {
+        if (copyIntoArray || (flagsAsInt && CallableGenerator.isFlagsMask(returnValue)))
+            builder.returns(TypeName.INT);
+        else if (!isConstructor) {
             if (func.returnsSelf() && func.parent() instanceof RegisteredType rt)
                 builder.returns(rt.typeName());
             else if (isGeneric && returnValue.anyType().typeName().equals(ClassNames.G_OBJECT))
@@ -159,6 +266,9 @@ public class MethodGenerator {
 
         // Parameters
         generator.generateMethodParameters(builder, isGeneric, true);
+        if (copyIntoArray)
+            builder.addJavadoc("\n@param destination the array to copy the returned elements into")
+                   .addParameter(new TypedValueGenerator(returnValue).getType(), "destination");
 
         // Exception
         if (func.callableAttrs().throws_())
@@ -171,7 +281,7 @@ public class MethodGenerator {
 
         // try-block for arena
         if (func.allocatesMemory())
-            builder.beginControlFlow("try (var _arena = $T.ofConfined())", Arena.class);
+            builder.beginControlFlow("try (var _arena = $L)", newCallArena());
 
         // When ownership of the instance parameter is transferred away, the
         // instance is consumed. Add a ref() call to prevent this.
@@ -190,6 +300,8 @@ public class MethodGenerator {
                     // Array parameters may refer to other parameters for their
                     // length, so they must be processed last.
                     .sorted((comparing(p -> p.anyType() instanceof Array)))
+                    // An int mask doesn't need to be null-checked
+                    .filter(p -> !(flagsAsInt && CallableGenerator.isFlagsMask(p)))
                     .map(PreprocessingGenerator::new)
                     .forEach(p -> p.generate(builder));
 
@@ -278,7 +390,7 @@ public class MethodGenerator {
             if (generator.checkNull()) {
                 builder.beginControlFlow("if (_result == null || _result.equals($T.NULL))",
                                 MemorySegment.class)
-                        .addStatement("return null")
+                        .addStatement("return $L", copyIntoArray ? "-1" : "null")
                         .endControlFlow();
             }
 
@@ -296,7 +408,8 @@ public class MethodGenerator {
             marshalReturnValue();
 
             // Generate postprocessing statements
-            generator.generate(builder);
+            if (!copyIntoArray)
+                generator.generate(builder);
 
             // Return "_returnValue"
             builder.addStatement("return _returnValue");
@@ -328,6 +441,17 @@ public class MethodGenerator {
 
     // Prepare a statement that marshals the return value to Java
     private void marshalReturnValue() {
+        if (copyIntoArray) {
+            builder.addStatement("int _returnValue = $L", new TypedValueGenerator(returnValue)
+                    .marshalNativeToJavaArray(CodeBlock.of("_result"), CodeBlock.of("destination")));
+            return;
+        }
+
+        if (flagsAsInt && CallableGenerator.isFlagsMask(returnValue)) {
+            builder.addStatement("int _returnValue = _result");
+            return;
+        }
+
         var isGeneric = this.isGeneric && returnValue.anyType().typeName().equals(ClassNames.G_OBJECT);
         var generator = new TypedValueGenerator(returnValue);
         var typeName = isGeneric ? ClassNames.GENERIC_T : generator.getType();
@@ -412,9 +536,6 @@ public class MethodGenerator {
         // method has different parameter names than the invoker method
         var generator = new CallableGenerator(func);
 
-        // Generate function descriptor
-        builder.addStatement(generator.generateFunctionDescriptorDeclaration());
-
         // Function pointer lookup
         switch (vm.parent()) {
             case Class c ->
@@ -440,9 +561,13 @@ public class MethodGenerator {
             }
         }
 
-        // Function pointer invocation
-        invoke.add("$T.downcallHandle(_func, _fdesc)$Z.invokeExact($Z$L)",
-                        ClassNames.INTEROP, generator.marshalParameters(!longAsInt));
+        // Function pointer invocation. The function descriptor is a static
+        // field, so the linked downcall handle can be reused.
+        invoke.add("$T.functionPointerHandle(_func,$W$T.$L)$Z.invokeExact($Z$L)",
+                        ClassNames.INTEROP,
+                        ((RegisteredType) func.parent()).helperClass(),
+                        functionDescriptorName(vm),
+                        generator.marshalParameters(!longAsInt));
 
         builder.addStatement(invoke.build());
     }
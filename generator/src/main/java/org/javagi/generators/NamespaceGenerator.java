@@ -64,6 +64,11 @@ public class NamespaceGenerator extends RegisteredTypeGenerator {
                 builder.addMethod(new MethodGenerator(f).generate());
                 if (f.hasBitfieldParameters() || f.hasFilenameParameters())
                     builder.addMethod(new CallableGenerator(f).generateOverload());
+                if (MethodGenerator.hasCopyIntoArrayOverload(f))
+                    builder.addMethod(new MethodGenerator(f).generateCopyIntoArrayOverload());
+                if (MethodGenerator.hasFlagsAsIntOverload(f))
+                    builder.addMethod(new MethodGenerator(f, MethodGenerator.getFlagsAsIntName(f))
+                            .generateFlagsAsIntOverload());
             }
         }
 
@@ -310,7 +310,7 @@ public class PostprocessingGenerator extends TypedValueGenerator {
         if (v instanceof Parameter p) {
             boolean notified = p.scope() == Scope.NOTIFIED && p.destroy() != null;
             boolean async = p.scope() == Scope.ASYNC && !p.isDestroyNotifyParameter();
-            if (notified || async)
+            if ((notified || async) && !usesTrampoline(p))
                 builder.addStatement("$1T.readyToClose(_$2LScope)", ClassNames.ARENAS, getName());
         }
     }
@@ -344,8 +344,13 @@ public class PreprocessingGenerator extends TypedValueGenerator {
 
     // Arena for parameters with async or notified scope
     private void scope(MethodSpec.Builder builder) {
+        // A shared trampoline doesn't need an arena
+        if (usesTrampoline(p))
+            return;
+
         if (p.scope() == Scope.NOTIFIED && p.destroy() != null)
-            builder.addStatement("final $1T _$2LScope = $1T.ofShared()", Arena.class, getName());
+            builder.addStatement("final $1T _$2LScope = $3T.ofCallback()",
+                    Arena.class, getName(), ClassNames.ARENAS);
 
         if (p.scope() == Scope.ASYNC && !p.isDestroyNotifyParameter())
             builder.addStatement("final $1T _$2LScope = $1T.ofShared()",
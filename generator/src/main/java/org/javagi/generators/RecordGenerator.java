@@ -170,28 +170,26 @@ public class RecordGenerator extends RegisteredTypeGenerator {
 
         /*
          * For vfunc callbacks (in GObject type classes), generate an override
-         * method with java.lang.reflect.Method parameter.
+         * method with java.lang.reflect.Method parameter. The method is
+         * converted to a MethodHandle that is bound to the upcall stub, and
+         * invoked by the upcall.
          *
          * Check for "cb.parameters() != null" because some callbacks are
          * incompletely specified in the gir data. Example: Gio FileIface
          * callback field "_query_settable_attributes_async"
          */
         else if (outerClass != null && cb.parameters() != null) {
-            builder.addField(FieldSpec.builder(
-                            nullable(java.lang.reflect.Method.class), "_" + generator.getName() + "Method",
-                            Modifier.PRIVATE)
-                    .build());
             builder.addMethod(generator.generateOverrideMethod());
             builder.addMethod(new ClosureGenerator(cb).generateUpcallMethod(
-                    "_" + generator.getName() + "Method",
+                    generator.getName(),
                     generator.getName() + "Upcall",
-                    "this._" + generator.getName() + "Method.invoke",
+                    "_method.invokeExact",
                     false));
             if (cb.hasLong())
                 builder.addMethod(new ClosureGenerator(cb).generateUpcallMethod(
-                        "_" + generator.getName() + "Method",
+                        generator.getName(),
                         generator.getName() + "Upcall_w64",
-                        "this._" + generator.getName() + "Method.invoke",
+                        "_method.invokeExact",
                         true));
         }
 
@@ -224,8 +222,8 @@ public class RecordGenerator extends RegisteredTypeGenerator {
                 .addParameter(Arena.class, "arena")
                 .addStatement("super(arena.allocate(getMemoryLayout()))");
         else
-            spec.addJavadoc("The memory is allocated with {@link $T#ofAuto}.\n", Arena.class)
-                .addStatement("super($T.ofAuto().allocate(getMemoryLayout()))", Arena.class);
+            spec.addJavadoc("The memory is allocated with {@link $T#allocate}.\n", ClassNames.SLAB_ALLOCATOR)
+                .addStatement("super($T.allocate(getMemoryLayout()))", ClassNames.SLAB_ALLOCATOR);
 
         return spec.build();
     }
@@ -241,8 +239,13 @@ public class RecordGenerator extends RegisteredTypeGenerator {
                 .addJavadoc("Allocate a new $T with the fields set to the provided values.\n", rec.typeName())
                 .addModifiers(Modifier.PUBLIC);
 
-        if (!arenaParameter)
+        // Fields that allocate memory (such as strings) need an arena
+        boolean needsArena = streamAccessibleFields().anyMatch(Field::allocatesMemory);
+
+        if (!arenaParameter && needsArena)
             spec.addJavadoc("The memory is allocated with {@link $T#ofAuto}.\n", Arena.class);
+        else if (!arenaParameter)
+            spec.addJavadoc("The memory is allocated with {@link $T#allocate}.\n", ClassNames.SLAB_ALLOCATOR);
         spec.addJavadoc("\n");
 
         streamAccessibleFields().forEach(f ->
@@ -262,9 +265,11 @@ public class RecordGenerator extends RegisteredTypeGenerator {
             spec.addJavadoc("@param arena to control the memory allocation scope\n")
                 .addParameter(Arena.class, "arena")
                 .addStatement("this(arena)");
-        else
+        else if (needsArena)
             spec.addStatement("$1T arena = $1T.ofAuto()", Arena.class)
                 .addStatement("this(arena)");
+        else
+            spec.addStatement("this()");
 
         // Copy the parameter values into the instance fields
         streamAccessibleFields().forEach(f -> {
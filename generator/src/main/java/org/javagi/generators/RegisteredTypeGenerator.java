@@ -81,6 +81,11 @@ public class RegisteredTypeGenerator {
                 builder.addMethod(new MethodGenerator(f).generate());
                 if (f.hasBitfieldParameters() || f.hasFilenameParameters())
                     builder.addMethod(new CallableGenerator(f).generateOverload());
+                if (MethodGenerator.hasCopyIntoArrayOverload(f))
+                    builder.addMethod(new MethodGenerator(f).generateCopyIntoArrayOverload());
+                if (MethodGenerator.hasFlagsAsIntOverload(f))
+                    builder.addMethod(new MethodGenerator(f, MethodGenerator.getFlagsAsIntName(f))
+                            .generateFlagsAsIntOverload());
             }
         }
     }
@@ -101,6 +106,11 @@ public class RegisteredTypeGenerator {
                 builder.addMethod(new MethodGenerator(m).generate());
                 if (m.hasBitfieldParameters() || m.hasFilenameParameters())
                     builder.addMethod(new CallableGenerator(m).generateOverload());
+                if (MethodGenerator.hasCopyIntoArrayOverload(m))
+                    builder.addMethod(new MethodGenerator(m).generateCopyIntoArrayOverload());
+                if (MethodGenerator.hasFlagsAsIntOverload(m))
+                    builder.addMethod(new MethodGenerator(m, MethodGenerator.getFlagsAsIntName(m))
+                            .generateFlagsAsIntOverload());
             }
         }
     }
@@ -206,6 +216,12 @@ public class RegisteredTypeGenerator {
         if (! listNamedFunctions().isEmpty())
             return true;
 
+        if (! listVirtualMethodInvokers().isEmpty())
+            return true;
+
+        if (! listSignals().isEmpty())
+            return true;
+
         return listFields().stream()
                 .anyMatch(f -> new FieldGenerator(f).canGenerateVarHandle());
     }
@@ -225,6 +241,17 @@ public class RegisteredTypeGenerator {
             builder.addField(spec);
         }
 
+        for (Callable c : listVirtualMethodInvokers()) {
+            var gen = new MethodGenerator(c);
+            var spec = gen.generateFunctionDescriptor(Modifier.STATIC, Modifier.FINAL);
+            builder.addField(spec);
+        }
+
+        for (Signal s : listSignals()) {
+            var gen = new SignalGenerator(s);
+            builder.addField(gen.generateNameField(Modifier.STATIC, Modifier.FINAL));
+        }
+
         if (rt instanceof StandardLayoutType) {
             for (Field f : listFields()) {
                 var gen = new FieldGenerator(f);
@@ -246,6 +273,22 @@ public class RegisteredTypeGenerator {
                 .toList();
     }
 
+    // List the methods that call a virtual method through a function pointer
+    private List<Callable> listVirtualMethodInvokers() {
+        return rt.children().stream()
+                .filter(c -> c instanceof Method || c instanceof VirtualMethod)
+                .map(Callable.class::cast)
+                .filter(not(Callable::skip))
+                .filter(c -> new MethodGenerator(c).invokesVirtualMethod())
+                .toList();
+    }
+
+    private List<Signal> listSignals() {
+        return filter(rt.children(), Signal.class).stream()
+                .filter(not(Signal::skip))
+                .toList();
+    }
+
     private List<Field> listFields() {
         List<Field> fields = new ArrayList<>();
         if (rt instanceof Record r) {
@@ -21,6 +21,7 @@ package org.javagi.generators;
 
 import org.javagi.javapoet.*;
 import org.javagi.configuration.ClassNames;
+import org.javagi.configuration.GeneratorOptions;
 import org.javagi.gir.*;
 import org.jspecify.annotations.Nullable;
 
@@ -46,6 +47,24 @@ public class SignalGenerator {
         this.generator = new CallableGenerator(signal);
     }
 
+    /**
+     * Generate a static field in the helper class with the interned native
+     * string of the signal name.
+     */
+    public FieldSpec generateNameField(Modifier... modifiers) {
+        return FieldSpec.builder(MemorySegment.class, nameFieldName(), modifiers)
+                .initializer("$T.get($S)", ClassNames.INTERNED_STRINGS, signal.name())
+                .build();
+    }
+
+    private String nameFieldName() {
+        return signal.name().replace('-', '_') + "$signal";
+    }
+
+    private CodeBlock nameField() {
+        return CodeBlock.of("$T.$L", signal.parent().helperClass(), nameFieldName());
+    }
+
     public TypeSpec generateFunctionalInterface() {
         return new ClosureGenerator(signal).generateFunctionalInterface();
     }
@@ -75,17 +94,31 @@ public class SignalGenerator {
                             .build());
 
         builder.addParameter(signal.typeName(), "handler")
-                .beginControlFlow("try ($1T _arena = $1T.ofConfined())", Arena.class)
+                .beginControlFlow("try ($T _arena = $L)", Arena.class, MethodGenerator.newCallArena())
                 .beginControlFlow("try");
 
         if (signal.detailed())
-            builder.addStatement("var _name = $T.allocate($S + ((detail == null || detail.isBlank()) ? $S : ($S + detail)), _arena)",
-                    ClassNames.INTEROP, signal.name(), "", "::");
+            builder.addStatement("var _name = (detail == null || detail.isBlank()) ? $L : $T.allocate($S + detail, _arena)",
+                    nameField(), ClassNames.INTEROP, signal.name() + "::");
         else
-            builder.addStatement("var _name = $T.allocate($S, _arena)",
-                    ClassNames.INTEROP, signal.name());
-
-        return builder.addStatement("var _callbackArena = $T.ofShared()", Arena.class)
+            builder.addStatement("var _name = $L", nameField());
+
+        if (GeneratorOptions.SHARED_TRAMPOLINES)
+            return builder.addStatement("var _result = (int) (long) $1T.g_signal_connect_data.invokeExact("
+                                    + "$Zhandle(),"
+                                    + "$W_name,$W$3T.trampoline(),"
+                                    + "$W$2T.register(handler),"
+                                    + "$W$2T.UNREGISTER_SYM,"
+                                    + "$W0)",
+                            ClassNames.SIGNALS, ClassNames.TRAMPOLINES, signal.typeName())
+                    .addStatement("return new SignalConnection<>(handle(), _result)")
+                    .nextControlFlow("catch (Throwable _err)")
+                    .addStatement("throw new AssertionError(_err)")
+                    .endControlFlow()
+                    .endControlFlow()
+                    .build();
+
+        return builder.addStatement("var _callbackArena = $T.ofCallback()", ClassNames.ARENAS)
                 .addStatement("var _result = (int) (long) $1T.g_signal_connect_data.invokeExact("
                                 + "$Zhandle(),"
                                 + "$W_name,$Whandler.toCallback(_callbackArena),"
@@ -137,7 +170,7 @@ public class SignalGenerator {
         generator.generateMethodParameters(builder, false, true);
 
         // Arena for memory allocations
-        builder.beginControlFlow("try ($1T _arena = $1T.ofConfined())", Arena.class);
+        builder.beginControlFlow("try ($T _arena = $L)", Arena.class, MethodGenerator.newCallArena());
 
         // Parameter preprocessing
         if (signal.parameters() != null)
@@ -157,11 +190,10 @@ public class SignalGenerator {
 
         // Allocate memory for signal name
         if (signal.detailed())
-            builder.addStatement("$T _name = $T.allocate($S + ((detail == null || detail.isBlank()) ? $S : ($S + detail)), _arena)",
-                    MemorySegment.class, ClassNames.INTEROP, signal.name(), "", "::");
+            builder.addStatement("$T _name = (detail == null || detail.isBlank()) ? $L : $T.allocate($S + detail, _arena)",
+                    MemorySegment.class, nameField(), ClassNames.INTEROP, signal.name() + "::");
         else
-            builder.addStatement("$T _name = $T.allocate($S, _arena)",
-                    MemorySegment.class, ClassNames.INTEROP, signal.name());
+            builder.addStatement("$T _name = $L", MemorySegment.class, nameField());
 
         // Create an array with the signal arguments
         var varargs = CodeBlock.builder().add("Object[] _args = ");
@@ -21,6 +21,7 @@ package org.javagi.generators;
 
 import org.javagi.javapoet.*;
 import org.javagi.configuration.ClassNames;
+import org.javagi.configuration.GeneratorOptions;
 import org.javagi.gir.*;
 import org.javagi.gir.Class;
 import org.javagi.gir.Record;
@@ -294,9 +295,15 @@ class TypedValueGenerator {
                 if (t.isString() || t.isMemorySegment() || t.isVoid())
                     yield CodeBlock.of("$L.getValue()", identifier);
 
+                // Int and long aliases have a primitive accessor
+                if (TypeName.INT.equals(t.typeName()) || TypeName.LONG.equals(t.typeName()))
+                    yield CodeBlock.of("$L.$LValue()", identifier, t.typeName());
+
                 yield CodeBlock.of("$L.getValue().$LValue()", identifier, t.javaType());
             }
             case Bitfield _ -> CodeBlock.of("$T.enumSetToInt($L)", ClassNames.INTEROP, identifier);
+            case Callback cb when v instanceof Parameter p && usesTrampoline(p) ->
+                    CodeBlock.of("$T.trampoline()", cb.typeName());
             case Callback _ -> {
                 CodeBlock.Builder arena = CodeBlock.builder();
                 switch(Scope.ofTypedValue(v)) {
@@ -326,6 +333,37 @@ class TypedValueGenerator {
         };
     }
 
+    /*
+     * With shared trampolines, a callback parameter with notified or async
+     * scope is passed as the trampoline of the callback type, and the callback
+     * instance is registered in the Trampolines table with the user_data
+     * pointer. The callback must have its own user_data (and DestroyNotify)
+     * parameter, and no other callback can share its arena.
+     */
+    static boolean usesTrampoline(Parameter p) {
+        if (!GeneratorOptions.SHARED_TRAMPOLINES)
+            return false;
+
+        if (!(p.anyType() instanceof Type t
+                && t.lookup() instanceof Callback cb
+                && cb.parent() instanceof Namespace
+                && cb.userDataIndex() >= 0))
+            return false;
+
+        boolean notified = p.scope() == Scope.NOTIFIED && p.destroy() != null;
+        boolean async = p.scope() == Scope.ASYNC && !p.isDestroyNotifyParameter();
+        if (!(notified || async) || p.closure() == null)
+            return false;
+
+        var parameters = p.parent().parameters();
+        return parameters.stream().noneMatch(other -> other != p
+                && (other.closure() == p.closure()
+                    || (notified && other.destroy() == p.destroy())
+                    || (other.scope() == Scope.NOTIFIED && other.destroy() == null
+                        && other.anyType() instanceof Type ot
+                        && ot.lookup() instanceof Callback)));
+    }
+
     /*
      * Sometimes a method has multiple callback arguments (such as a "progress
      * callback" and an AsyncReadyCallback) with a single shared DestroyNotify
@@ -468,6 +506,17 @@ class TypedValueGenerator {
         return CodeBlock.of("null /* unsupported */");
     }
 
+    /*
+     * Copy a native array of primitive values with a known size into an
+     * existing Java array.
+     */
+    CodeBlock marshalNativeToJavaArray(CodeBlock identifier, CodeBlock destination) {
+        var type = (Type) array.anyType();
+        return CodeBlock.of("$T.get$LArray($L, $L, $L, $L)",
+                ClassNames.INTEROP, primitiveClassName(type.javaType()), identifier,
+                array.sizeExpression(false), transfer(), destination);
+    }
+
     CodeBlock marshalNativeToJava(Type type, CodeBlock identifier) {
         boolean isTypeInstance = target instanceof Record && "TypeInstance".equals(target.name());
         boolean isTypeClass = target instanceof Record && "TypeClass".equals(target.name());
@@ -534,7 +583,9 @@ class TypedValueGenerator {
         }
 
         if (target != null && target.checkIsGBytes())
-            return CodeBlock.of("$T.fromGBytes($L)", ClassNames.INTEROP, identifier);
+            return CodeBlock.of("$T.$L($L)", ClassNames.INTEROP,
+                    GeneratorOptions.BYTES_AS_SEGMENTS ? "fromGBytesSegment" : "fromGBytes",
+                    identifier);
 
         if (target != null && target.checkIsGString())
             return CodeBlock.of("$T.fromGString($L, $T.$L)",
@@ -66,6 +66,23 @@ public final class Callback extends GirElement implements RegisteredType, Callab
         return findAny(children(), ReturnValue.class);
     }
 
+    /**
+     * Get the position of the user_data parameter of this callback.
+     *
+     * @return the index of the user_data parameter, or -1 when the callback
+     *         doesn't have a user_data parameter
+     */
+    public int userDataIndex() {
+        Parameters params = parameters();
+        if (params == null)
+            return -1;
+        List<Parameter> list = params.parameters();
+        for (int i = 0; i < list.size(); i++)
+            if (list.get(i).isUserDataParameter())
+                return i;
+        return -1;
+    }
+
     @Override
     public boolean deprecated() {
         return infoAttrs().deprecated();
@@ -19,6 +19,7 @@
 
 package org.javagi.gir;
 
+import org.javagi.configuration.GeneratorOptions;
 import org.javagi.javapoet.ArrayTypeName;
 import org.javagi.javapoet.TypeName;
 
@@ -61,9 +62,11 @@ public interface TypeReference {
         var type = lookup();
 
         if (type instanceof Record rec) {
-            // GBytes is treated as a byte[]
+            // GBytes is treated as a byte[], or as a MemorySegment
             if (rec.checkIsGBytes())
-                return ArrayTypeName.of(byte.class);
+                return GeneratorOptions.BYTES_AS_SEGMENTS
+                        ? TypeName.get(MemorySegment.class)
+                        : ArrayTypeName.of(byte.class);
 
             // GString is treated as a String
             if (rec.checkIsGString())
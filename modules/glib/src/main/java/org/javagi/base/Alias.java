@@ -33,6 +33,13 @@ public abstract class Alias<T> {
 
     private T value;
 
+    /**
+     * Create a new alias without a value. This is used by subclasses that
+     * store the value in a primitive field.
+     */
+    protected Alias() {
+    }
+
     /**
      * Create a new alias with the provided value.
      *
@@ -191,7 +198,7 @@ public abstract class Alias<T> {
     public static int[] getIntegerValues(Alias<Integer>[] array) {
         int[] values = new int[array.length];
         for (int i = 0; i < array.length; i++) {
-            values[i] = array[i].getValue();
+            values[i] = array[i] instanceof IntAlias a ? a.intValue() : array[i].getValue();
         }
         return values;
     }
@@ -205,7 +212,7 @@ public abstract class Alias<T> {
     public static long[] getLongValues(Alias<Long>[] array) {
         long[] values = new long[array.length];
         for (int i = 0; i < array.length; i++) {
-            values[i] = array[i].getValue();
+            values[i] = array[i] instanceof LongAlias a ? a.longValue() : array[i].getValue();
         }
         return values;
     }
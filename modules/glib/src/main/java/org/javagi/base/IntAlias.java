@@ -0,0 +1,94 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.base;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Base class for type aliases of {@code int} values. The value is stored in
+ * a primitive field, so reading it with {@link #intValue()} and comparing
+ * aliases doesn't box the value. The {@link Alias} methods with a boxed
+ * {@code Integer} remain available for compatibility.
+ */
+public abstract class IntAlias extends Alias<Integer> {
+
+    private int value;
+
+    /**
+     * Create a new alias with the provided value.
+     *
+     * @param value the initial value of the alias
+     */
+    public IntAlias(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the current value of the alias.
+     *
+     * @return the current value
+     */
+    public int intValue() {
+        return value;
+    }
+
+    /**
+     * Set the alias to the provided value, overwriting the existing value.
+     *
+     * @param value the new value
+     */
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public void setValue(Integer value) {
+        this.value = value;
+    }
+
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "<" + this.value + ">";
+    }
+
+    /**
+     * Compare two aliases for equality. This will compare both the type of the
+     * aliases, and their values.
+     *
+     * @param  o the alias to compare
+     * @return whether the aliases are equal
+     */
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return value == ((IntAlias) o).value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
+    }
+}
@@ -0,0 +1,163 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.javagi.gobject;
+
+import org.javagi.interop.LongTable;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A concurrent hash map with the raw memory address (a {@code long}) as key.
+ * <p>
+ * The map is divided in segments, that each contain a {@link LongTable}.
+ * Lookups use an optimistic read of the segment (that only falls back to a
+ * read lock when the segment was modified during the lookup) and don't
+ * allocate. Updates lock the segment.
+ * <p>
+ * The {@code NULL} address (0) cannot be used as a key.
+ *
+ * @param <V> the type of the values
+ */
+@NullMarked
+final class AddressMap<V> {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final class Segment<V> {
+        final StampedLock lock = new StampedLock();
+        final LongTable<V> table = new LongTable<>(INITIAL_CAPACITY);
+    }
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked") // generic array creation
+    AddressMap() {
+        segments = (Segment<V>[]) new Segment<?>[1 << SEGMENT_BITS];
+        for (int i = 0; i < segments.length; i++)
+            segments[i] = new Segment<>();
+    }
+
+    /**
+     * Get the value for the provided address.
+     *
+     * @param  address the memory address
+     * @return the value, or {@code null} if it wasn't found
+     */
+    @Nullable V get(long address) {
+        Segment<V> segment = segmentFor(address);
+        long stamp = segment.lock.tryOptimisticRead();
+        V value = segment.table.get(address);
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                value = segment.table.get(address);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Check whether the map contains the provided address.
+     *
+     * @param  address the memory address
+     * @return whether the address is a key in the map
+     */
+    boolean containsKey(long address) {
+        return get(address) != null;
+    }
+
+    /**
+     * Add the value for the provided address, unless the map already contains
+     * a value for the address.
+     *
+     * @param  address the memory address
+     * @param  value   the value to add
+     * @return the existing value, or {@code null} if the value was added
+     */
+    @Nullable V putIfAbsent(long address, V value) {
+        if (address == 0)
+            throw new IllegalArgumentException("NULL address");
+
+        Segment<V> segment = segmentFor(address);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.table.putIfAbsent(address, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the value for the provided address.
+     *
+     * @param  address the memory address
+     * @return the removed value, or {@code null} if it wasn't found
+     */
+    @Nullable V remove(long address) {
+        return remove(address, null);
+    }
+
+    /**
+     * Remove the value for the provided address, if it is the expected value.
+     *
+     * @param  address  the memory address
+     * @param  expected the expected value, or {@code null} to remove any value
+     * @return the removed value, or {@code null} if it wasn't removed
+     */
+    @Nullable V remove(long address, @Nullable V expected) {
+        Segment<V> segment = segmentFor(address);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.table.remove(address, expected);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.table.size();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    // The tables use the lower bits of the hash, so the upper bits select
+    // the segment
+    private Segment<V> segmentFor(long address) {
+        return segments[LongTable.hash(address) >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+}
@@ -125,7 +125,7 @@ public abstract class Builder<S extends Builder> implements BuilderInterface {
     public void connectSignals(MemorySegment handle) {
         for (var s : connectRequests) {
             try {
-                var _callbackArena = Arena.ofShared();
+                var _callbackArena = Arenas.ofCallback();
                 var result = (long) Signals.g_signal_connect_data.invokeExact(
                         handle,
                         Interop.allocate(s.name, arena),
@@ -133,6 +133,7 @@ public abstract class Builder<S extends Builder> implements BuilderInterface {
                         Arenas.cacheArena(_callbackArena),
                         Arenas.CLOSE_CB_SYM,
                         ConnectFlags.DEFAULT.getValue());
+                Arenas.readyToClose(_callbackArena);
             } catch (Throwable _err) {
                 throw new AssertionError(_err);
             }
@@ -34,7 +34,7 @@ import org.javagi.base.Floating;
 import org.javagi.base.ProxyInstance;
 import org.javagi.gobject.types.TypeCache;
 import org.javagi.interop.Interop;
-import org.gnome.glib.MainContext;
+import org.javagi.interop.Reclaimer;
 import org.gnome.glib.Type;
 import org.gnome.gobject.*;
 
@@ -52,44 +52,31 @@ import static java.util.Objects.requireNonNull;
 public class InstanceCache {
 
     /*
-     * The Ref type represents either a strong or weak reference to a Java
-     * proxy for a GObject. When a toggle-notify event is received, the cached
-     * Ref is toggled between strong and weak.
+     * A cached Java proxy for a GObject. The entry is a weak reference to the
+     * proxy, and also holds a strong reference while the proxy must be kept
+     * alive. When a toggle-notify event is received, the strong reference is
+     * set or cleared in place, so toggling doesn't allocate.
      */
-    private sealed interface Ref<T> permits Ref.Strong, Ref.Weak {
-        record Strong<T>(@Nullable T proxy) implements Ref<T> {
-            public @Nullable T get() {
-                return proxy;
-            }
-        }
-
-        record Weak<T>(WeakReference<T> proxy) implements Ref<T> {
-            Weak(@Nullable T proxy) {
-                this(new WeakReference<>(proxy));
-            }
-            public @Nullable T get() {
-                return proxy.get();
-            }
+    private static final class Entry extends WeakReference<Proxy> {
+        // Keeps the proxy reachable while it is a strong reference
+        @SuppressWarnings("unused")
+        private volatile @Nullable Proxy strong;
+
+        Entry(Proxy proxy) {
+            super(proxy);
+            this.strong = proxy;
         }
 
-        @Nullable T get();
-
-        default Ref<T> asWeak() {
-            return this instanceof Weak ? this : new Weak<>(get());
-        }
-
-        default Ref<T> asStrong() {
-            return this instanceof Strong ? this : new Strong<>(get());
+        void toggle(boolean isLastRef) {
+            strong = isLastRef ? null : get();
         }
     }
 
     private static final ScopedValue<GObject> CONSTRUCTING = ScopedValue.newInstance();
-    private static final ConcurrentHashMap<MemorySegment, Ref<Proxy>> references = new ConcurrentHashMap<>();
+    private static final AddressMap<Entry> references = new AddressMap<>();
     private static final Set<MemorySegment> unownedUserDefinedInstances = ConcurrentHashMap.newKeySet();
-    private static final Cleaner CLEANER = Cleaner.create();
     private static final MemorySegment toggle_notify;
     private static final VarHandle ADDRESS_FIELD;
-    private static final MemorySegment REMOVE_TOGGLE_REF;
 
     private static final MethodHandle g_object_new =
             Interop.downcallHandle(
@@ -115,12 +102,6 @@ public class InstanceCache {
                     FunctionDescriptor.ofVoid(ValueLayout.ADDRESS),
                     false);
 
-    private static final MethodHandle g_main_context_invoke =
-            Interop.downcallHandle(
-                    "g_main_context_invoke", FunctionDescriptor.ofVoid(
-                    ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
-                    false);
-
     static {
         GObjects.javagi$ensureInitialized();
 
@@ -144,16 +125,6 @@ public class InstanceCache {
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException(e);
         }
-
-        // Allocate the upcall stub for the removeToggleRef callback method
-        try {
-            FunctionDescriptor _fdesc = FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS);
-            MethodHandle _handle = MethodHandles.lookup().findStatic(
-                    InstanceCache.class, "removeToggleRef", _fdesc.toMethodType());
-            REMOVE_TOGGLE_REF = Linker.nativeLinker().upcallStub(_handle, _fdesc, Arena.global());
-        } catch (NoSuchMethodException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
     }
 
     /**
@@ -169,15 +140,16 @@ public class InstanceCache {
             return null;
 
         // Get instance from cache
-        var ref = references.get(address);
-        if (ref == null)
+        var entry = references.get(address.address());
+        if (entry == null)
             return null;
 
         // Remove dangling references (though this should never happen)
-        if (ref.get() == null)
-            references.remove(address);
+        var proxy = entry.get();
+        if (proxy == null)
+            references.remove(address.address(), entry);
 
-        return ref.get();
+        return proxy;
     }
 
     /**
@@ -286,7 +258,7 @@ public class InstanceCache {
 
         // Get the GType of the GTypeClass
         Type type = new TypeClass(address).readGType();
-        while (type.getValue() != 0) {
+        while (type.longValue() != 0) {
             // Get the Java GTypeClass constructor for this type
             Function<MemorySegment, ? extends Proxy> constructor = TypeCache.getTypeClassConstructor(type);
 
@@ -310,7 +282,7 @@ public class InstanceCache {
      */
     public static Proxy put(MemorySegment address, GObject object) {
         // If it was already cached, putIfAbsent() will return the existing one
-        var existing = references.putIfAbsent(address, new Ref.Strong<>(object));
+        var existing = references.putIfAbsent(address.address(), new Entry(object));
         if (existing != null) {
             var value = existing.get();
             if (value != null)
@@ -328,7 +300,7 @@ public class InstanceCache {
         unref(object);
 
         // Register a cleaner that will remove the toggle reference
-        CLEANER.register(object, new ToggleRefFinalizer(address));
+        Reclaimer.CLEANER.register(object, new ToggleRefFinalizer(address));
 
         // Return the new instance.
         return object;
@@ -381,7 +353,7 @@ public class InstanceCache {
         ScopedValue.where(CONSTRUCTING, object).run(() -> {
             try (var _arena = Arena.ofConfined()) {
                 // Invoke g_object_new()
-                long t = (type == null ? TypeCache.getType(object.getClass()) : type).getValue().longValue();
+                long t = (type == null ? TypeCache.getType(object.getClass()) : type).longValue();
                 MemorySegment f = first == null ? MemorySegment.NULL : Interop.allocate(first, _arena);
                 var address = (MemorySegment) g_object_new.invokeExact(t, f, rest);
 
@@ -428,7 +400,7 @@ public class InstanceCache {
      * @param address address of a GObject
      */
     public static void refOnce(@Nullable MemorySegment address) {
-        if (! (address == null || MemorySegment.NULL.equals(address) || references.containsKey(address))) {
+        if (! (address == null || MemorySegment.NULL.equals(address) || references.containsKey(address.address()))) {
             GObject object = new GObject(address);
             Type objectType = GObject.getType();
             if (objectType != null && GObjects.typeCheckInstanceIsA(object, objectType))
@@ -461,10 +433,9 @@ public class InstanceCache {
 
     // Callback function, triggered by the toggle-notify signal
     private static void handleToggleNotify(MemorySegment ignored, MemorySegment object, int isLastRef) {
-        if (isLastRef != 0)
-            references.computeIfPresent(object, (_, v) -> v.asWeak());
-        else
-            references.computeIfPresent(object, (_, v) -> v.asStrong());
+        var entry = references.get(object.address());
+        if (entry != null)
+            entry.toggle(isLastRef != 0);
     }
 
     /**
@@ -480,7 +451,7 @@ public class InstanceCache {
         } catch (Throwable _err) {
             throw new AssertionError("Unexpected exception occurred: ", _err);
         }
-        references.remove(address);
+        references.remove(address.address());
         unownedUserDefinedInstances.remove(address);
         return 0;
     }
@@ -488,23 +459,15 @@ public class InstanceCache {
     /**
      * This callback is run by the {@link Cleaner} when a {@link GObject}
      * instance has become unreachable, to remove the toggle reference. The
-     * reference is removed in the default GLib MainContext.
+     * reference is removed in the default GLib MainContext, together with the
+     * other toggle references that are queued in the {@link Reclaimer}.
      *
      * @param address memory address of the object instance to be cleaned
      */
     private record ToggleRefFinalizer(MemorySegment address) implements Runnable {
         public void run() {
             // g_object_remove_toggle_ref must be called from the main context
-            var defaultContext = MainContext.default_();
-            if (defaultContext != null) {
-                try {
-                    g_main_context_invoke.invokeExact(defaultContext.handle(), REMOVE_TOGGLE_REF, address);
-                } catch (Throwable _err) {
-                    throw new AssertionError(_err);
-                }
-            } else {
-                removeToggleRef(address);
-            }
+            Reclaimer.invokeInMainContext(address, InstanceCache::removeToggleRef);
         }
     }
 }
@@ -21,6 +21,8 @@ package org.javagi.gobject;
 
 import java.lang.foreign.MemorySegment;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.gnome.glib.Variant;
 import org.javagi.base.Proxy;
@@ -46,7 +48,10 @@ import static org.gnome.gobject.GObjects.typeIsA;
  */
 @NullMarked
 public class ValueUtil {
-    
+
+    // The GType of GType values, looked up only once
+    private static final Type GTYPE = gtypeGetType();
+
     /**
      * Read the GType from the GValue, call the corresponding getter (using the
      * methods defined in the {@link Value} proxy class), and return the result.
@@ -60,120 +65,156 @@ public class ValueUtil {
         if (src == null)
             return null;
 
-        Type type = src.readGType();
-        if (type.equals(NONE))
-            return null;
+        return reader(src.readGType()).apply(src);
+    }
+
+    /**
+     * Read the GType of the {@code dest} GValue and set the {@code src} object
+     * (or boxed primitive value) as its value using the corresponding setter in
+     * the {@link Value} proxy class.
+     *
+     * @param  src  the Java Object (or boxed primitive value) to put in the
+     *              GValue. Should not be {@code null}
+     * @param  dest the GValue to write to. Should not be {@code null}
+     * @return {@code true} if the value was set, and {@code false} otherwise.
+     */
+    public static boolean objectToValue(@Nullable Object src, @Nullable Value dest) {
+        if (src == null || dest == null)
+            return false;
+
+        writer(dest.readGType()).accept(dest, src);
+        return true;
+    }
+
+    /**
+     * Select the function that reads a Java object (or boxed primitive value)
+     * from a GValue with the provided GType. The function can be reused for
+     * all GValues of this type, so the GType only needs to be checked once.
+     * <p>
+     * When the type is not supported, the returned function throws an
+     * {@link UnsupportedOperationException}.
+     *
+     * @param  type the GType of the GValue
+     * @return the function that reads the value from a GValue
+     */
+    public static Function<Value, @Nullable Object> reader(Type type) {
+        if (type.equals(NONE))           return _ -> null;
 
         // Fundamental types
-        if (type.equals(BOOLEAN))        return src.getBoolean();
-        if (type.equals(CHAR))           return (char) src.getSchar();
-        if (type.equals(UCHAR))          return (char) src.getUchar();
-        if (type.equals(DOUBLE))         return src.getDouble();
-        if (type.equals(FLOAT))          return src.getFloat();
-        if (type.equals(INT))            return src.getInt();
-        if (type.equals(UINT))           return src.getUint();
-        if (type.equals(LONG))           return src.getLong();
-        if (type.equals(ULONG))          return src.getUlong();
-        if (type.equals(INT64))          return src.getInt64();
-        if (type.equals(STRING))         return src.getString();
-        if (type.equals(POINTER))        return src.getPointer();
-        if (type.equals(PARAM))          return src.getParam();
-        if (type.equals(VARIANT))        return src.getVariant();
+        if (type.equals(BOOLEAN))        return Value::getBoolean;
+        if (type.equals(CHAR))           return src -> (char) src.getSchar();
+        if (type.equals(UCHAR))          return src -> (char) src.getUchar();
+        if (type.equals(DOUBLE))         return Value::getDouble;
+        if (type.equals(FLOAT))          return Value::getFloat;
+        if (type.equals(INT))            return Value::getInt;
+        if (type.equals(UINT))           return Value::getUint;
+        if (type.equals(LONG))           return Value::getLong;
+        if (type.equals(ULONG))          return Value::getUlong;
+        if (type.equals(INT64))          return Value::getInt64;
+        if (type.equals(STRING))         return Value::getString;
+        if (type.equals(POINTER))        return Value::getPointer;
+        if (type.equals(PARAM))          return Value::getParam;
+        if (type.equals(VARIANT))        return Value::getVariant;
 
         // GType
-        if (type.equals(gtypeGetType())) return src.getGtype();
+        if (type.equals(GTYPE))          return Value::getGtype;
 
         // GObject
-        if (typeIsA(type, OBJECT))       return src.getObject();
+        if (typeIsA(type, OBJECT))       return Value::getObject;
 
         // GStrv
         if (type.equals(STRV))
-            return Interop.getStringArray(
+            return src -> Interop.getStringArray(
                     requireNonNullElse(src.getBoxed(), MemorySegment.NULL),
                     TransferOwnership.NONE);
 
         // GByteArray
-        if (type.equals(BYTE_ARRAY)) {
-            MemorySegment address = src.getBoxed();
-            ByteArray arr = new ByteArray(requireNonNullElse(address, MemorySegment.NULL));
-            MemorySegment data = Interop.dereference(address);
-            int length = arr.readLen();
-            return Interop.getByteArray(data, length, TransferOwnership.NONE);
-        }
-
-        // Boxed type
-        if (BoxedUtil.isBoxed(type)) {
-            MemorySegment address = requireNonNull(src.getBoxed());
-            var ctor = TypeCache.getConstructor(type, null);
-            if (ctor == null)
-                throw new UnsupportedOperationException("Unsupported boxed type: " + type);
-            return ctor.apply(address);
-        }
+        if (type.equals(BYTE_ARRAY))
+            return src -> {
+                MemorySegment address = src.getBoxed();
+                ByteArray arr = new ByteArray(requireNonNullElse(address, MemorySegment.NULL));
+                MemorySegment data = Interop.dereference(address);
+                int length = arr.readLen();
+                return Interop.getByteArray(data, length, TransferOwnership.NONE);
+            };
+
+        // Boxed type. The constructor is looked up when the value is read,
+        // because the Java class may not have been registered yet.
+        if (BoxedUtil.isBoxed(type))
+            return src -> {
+                MemorySegment address = requireNonNull(src.getBoxed());
+                var ctor = TypeCache.getConstructor(type, null);
+                if (ctor == null)
+                    throw new UnsupportedOperationException("Unsupported boxed type: " + type);
+                return ctor.apply(address);
+            };
 
         // Enum
-        if (typeIsA(type, ENUM)) {
-            int value = src.getEnum();
-            var ctor = TypeCache.getEnumConstructor(type);
-            if (ctor == null)
-                throw new UnsupportedOperationException("Unsupported enum type: " + type);
-            return ctor.apply(value);
-        }
+        if (typeIsA(type, ENUM))
+            return src -> {
+                int value = src.getEnum();
+                var ctor = TypeCache.getEnumConstructor(type);
+                if (ctor == null)
+                    throw new UnsupportedOperationException("Unsupported enum type: " + type);
+                return ctor.apply(value);
+            };
 
         // Flags
-        if (typeIsA(type, FLAGS)) {
-            int value = src.getFlags();
-            var ctor = TypeCache.getEnumConstructor(type);
-            if (ctor == null)
-                throw new UnsupportedOperationException("Unsupported flags type: " + type);
-            return ctor.apply(value);
-        }
-
-        throw new UnsupportedOperationException("Unsupported type: " + type);
+        if (typeIsA(type, FLAGS))
+            return src -> {
+                int value = src.getFlags();
+                var ctor = TypeCache.getEnumConstructor(type);
+                if (ctor == null)
+                    throw new UnsupportedOperationException("Unsupported flags type: " + type);
+                return ctor.apply(value);
+            };
+
+        return _ -> {
+            throw new UnsupportedOperationException("Unsupported type: " + type);
+        };
     }
 
     /**
-     * Read the GType of the {@code dest} GValue and set the {@code src} object
-     * (or boxed primitive value) as its value using the corresponding setter in
-     * the {@link Value} proxy class.
+     * Select the function that writes a Java object (or boxed primitive
+     * value) into a GValue with the provided GType. The function can be
+     * reused for all GValues of this type, so the GType only needs to be
+     * checked once.
+     * <p>
+     * When the type is not supported, the returned function throws an
+     * {@link UnsupportedOperationException}.
      *
-     * @param  src  the Java Object (or boxed primitive value) to put in the
-     *              GValue. Should not be {@code null}
-     * @param  dest the GValue to write to. Should not be {@code null}
-     * @return {@code true} if the value was set, and {@code false} otherwise.
+     * @param  type the GType of the GValue
+     * @return the function that writes a (non-null) value into a GValue
      */
     @SuppressWarnings({"unchecked", "rawtypes"}) // Flags parameters are always Set<Enum>
-    public static boolean objectToValue(@Nullable Object src, @Nullable Value dest) {
-        if (src == null || dest == null)
-            return false;
-
-        Type type = dest.readGType();
-        if      (type.equals(BOOLEAN))        dest.setBoolean((Boolean) src);
-        else if (type.equals(CHAR))           dest.setSchar((byte) ((Character) src).charValue());
-        else if (type.equals(UCHAR))          dest.setUchar((byte) ((Character) src).charValue());
-        else if (type.equals(DOUBLE))         dest.setDouble((Double) src);
-        else if (type.equals(FLOAT))          dest.setFloat((Float) src);
-        else if (type.equals(INT))            dest.setInt((Integer) src);
-        else if (type.equals(UINT))           dest.setUint((Integer) src);
-        else if (type.equals(LONG))           dest.setLong(toInt(src));
-        else if (type.equals(ULONG))          dest.setUlong(toInt(src));
-        else if (type.equals(INT64))          dest.setInt64((Long) src);
-        else if (type.equals(STRING))         dest.setString((String) src);
-        else if (type.equals(ENUM))           dest.setEnum(((Enumeration) src).getValue());
-        else if (type.equals(FLAGS))          dest.setFlags(Interop.enumSetToInt((Set) src));
-        else if (type.equals(OBJECT))         dest.setObject((GObject) src);
-        else if (type.equals(gtypeGetType())) dest.setGtype((Type) src);
-        else if (type.equals(POINTER))        dest.setPointer((MemorySegment) src);
-        else if (type.equals(PARAM))          dest.setParam((ParamSpec) src);
-        else if (type.equals(STRV))           dest.setBoxed(Interop.allocate((String[]) src, true, Interop.mallocAllocator()));
-        else if (type.equals(BYTE_ARRAY))     dest.setBoxed(ByteArray.take((byte[]) src).handle());
-        else if (type.equals(VARIANT))        dest.setVariant((Variant) src);
-        else if (typeIsA(type, OBJECT))       dest.setObject((GObject) src);
-        else if (typeIsA(type, ENUM))         dest.setEnum(enumToInt(src));
-        else if (typeIsA(type, FLAGS))        dest.setFlags(flagsToInt(src));
-        else if (BoxedUtil.isBoxed(type))     dest.setBoxed(((Proxy) src).handle());
-        else throw new UnsupportedOperationException("Unsupported type: " + type);
-
-        return true;
+    public static BiConsumer<Value, Object> writer(Type type) {
+        if      (type.equals(BOOLEAN))        return (dest, src) -> dest.setBoolean((Boolean) src);
+        else if (type.equals(CHAR))           return (dest, src) -> dest.setSchar((byte) ((Character) src).charValue());
+        else if (type.equals(UCHAR))          return (dest, src) -> dest.setUchar((byte) ((Character) src).charValue());
+        else if (type.equals(DOUBLE))         return (dest, src) -> dest.setDouble((Double) src);
+        else if (type.equals(FLOAT))          return (dest, src) -> dest.setFloat((Float) src);
+        else if (type.equals(INT))            return (dest, src) -> dest.setInt((Integer) src);
+        else if (type.equals(UINT))           return (dest, src) -> dest.setUint((Integer) src);
+        else if (type.equals(LONG))           return (dest, src) -> dest.setLong(toInt(src));
+        else if (type.equals(ULONG))          return (dest, src) -> dest.setUlong(toInt(src));
+        else if (type.equals(INT64))          return (dest, src) -> dest.setInt64((Long) src);
+        else if (type.equals(STRING))         return (dest, src) -> dest.setString((String) src);
+        else if (type.equals(ENUM))           return (dest, src) -> dest.setEnum(((Enumeration) src).getValue());
+        else if (type.equals(FLAGS))          return (dest, src) -> dest.setFlags(Interop.enumSetToInt((Set) src));
+        else if (type.equals(OBJECT))         return (dest, src) -> dest.setObject((GObject) src);
+        else if (type.equals(GTYPE))          return (dest, src) -> dest.setGtype((Type) src);
+        else if (type.equals(POINTER))        return (dest, src) -> dest.setPointer((MemorySegment) src);
+        else if (type.equals(PARAM))          return (dest, src) -> dest.setParam((ParamSpec) src);
+        else if (type.equals(STRV))           return (dest, src) -> dest.setBoxed(Interop.allocate((String[]) src, true, Interop.mallocAllocator()));
+        else if (type.equals(BYTE_ARRAY))     return (dest, src) -> dest.setBoxed(ByteArray.take((byte[]) src).handle());
+        else if (type.equals(VARIANT))        return (dest, src) -> dest.setVariant((Variant) src);
+        else if (typeIsA(type, OBJECT))       return (dest, src) -> dest.setObject((GObject) src);
+        else if (typeIsA(type, ENUM))         return (dest, src) -> dest.setEnum(enumToInt(src));
+        else if (typeIsA(type, FLAGS))        return (dest, src) -> dest.setFlags(flagsToInt(src));
+        else if (BoxedUtil.isBoxed(type))     return (dest, src) -> dest.setBoxed(((Proxy) src).handle());
+        else return (_, _) -> {
+            throw new UnsupportedOperationException("Unsupported type: " + type);
+        };
     }
 
     /**
@@ -0,0 +1,655 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.gobject.processor;
+
+import org.javagi.gobject.annotations.Property;
+import org.javagi.gobject.types.RegistrationDescriptor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.lang.Character.isUpperCase;
+import static org.javagi.gobject.annotations.Property.NOT_SET;
+
+/**
+ * Annotation processor that generates a {@link RegistrationDescriptor} for
+ * Java classes that will be registered as a GType. The descriptor contains
+ * the properties, signals, class and instance initializers, and Gtk template
+ * children and callbacks of the class, so they don't need to be found with
+ * reflection when the class is registered.
+ * <p>
+ * A descriptor is generated for every class or interface that is annotated
+ * with {@code @RegisteredType} or {@code @GtkTemplate}, or that declares
+ * members annotated with {@code @Property}, {@code @Signal},
+ * {@code @ClassInit}, {@code @InstanceInit}, {@code @GtkChild} or
+ * {@code @GtkCallback}. The descriptor is a public class in the same package,
+ * so the package must be opened (or exported) to the {@code org.javagi.glib}
+ * module. When one of the types used by the class is not accessible from
+ * another class in the package, no descriptor is generated, and the class
+ * will be scanned with reflection during registration.
+ * <p>
+ * The annotation processor is not registered as a service, so javac doesn't
+ * run it implicitly for every project that depends on {@code org.java-gi:glib}.
+ * To enable it, add the {@code org.java-gi:glib} artifact to the annotation
+ * processor path, and pass
+ * {@code -processor org.javagi.gobject.processor.RegistrationProcessor} to
+ * javac.
+ */
+@NullMarked
+public class RegistrationProcessor extends AbstractProcessor {
+
+    private static final String ANNOTATIONS = "org.javagi.gobject.annotations.";
+    private static final String GTK_ANNOTATIONS = "org.javagi.gtk.annotations.";
+
+    private static final String PROPERTY = ANNOTATIONS + "Property";
+    private static final String SIGNAL = ANNOTATIONS + "Signal";
+    private static final String FLAGS = ANNOTATIONS + "Flags";
+    private static final String CLASS_INIT = ANNOTATIONS + "ClassInit";
+    private static final String INSTANCE_INIT = ANNOTATIONS + "InstanceInit";
+    private static final String REGISTERED_TYPE = ANNOTATIONS + "RegisteredType";
+    private static final String GTK_CHILD = GTK_ANNOTATIONS + "GtkChild";
+    private static final String GTK_CALLBACK = GTK_ANNOTATIONS + "GtkCallback";
+    private static final String GTK_TEMPLATE = GTK_ANNOTATIONS + "GtkTemplate";
+
+    private static final String DESCRIPTOR = RegistrationDescriptor.class.getCanonicalName();
+
+    // The classes for which a descriptor was generated in a previous round
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(PROPERTY, SIGNAL, CLASS_INIT, INSTANCE_INIT, REGISTERED_TYPE,
+                      GTK_CHILD, GTK_CALLBACK, GTK_TEMPLATE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> classes = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement cls = registeredClass(element);
+                if (cls != null)
+                    classes.add(cls);
+            }
+        }
+
+        for (TypeElement cls : classes) {
+            String name = processingEnv.getElementUtils().getBinaryName(cls) + RegistrationDescriptor.SUFFIX;
+            if (generated.add(name))
+                generate(cls, name);
+        }
+
+        // Don't claim the annotations
+        return false;
+    }
+
+    /*
+     * Get the class that is registered with the annotated element: the class
+     * itself for @RegisteredType and @GtkTemplate, and else the class that
+     * declares the annotated member.
+     */
+    private static @Nullable TypeElement registeredClass(Element element) {
+        Element cls = switch (element.getKind()) {
+            case CLASS, INTERFACE -> hasAnnotation(element, SIGNAL)
+                    ? element.getEnclosingElement()
+                    : element;
+            case METHOD, FIELD -> element.getEnclosingElement();
+            default -> null;
+        };
+        if (cls instanceof TypeElement te
+                && (te.getKind() == ElementKind.CLASS || te.getKind() == ElementKind.INTERFACE))
+            return te;
+        return null;
+    }
+
+    private void generate(TypeElement cls, String descriptorName) {
+        String source;
+        try {
+            source = new DescriptorWriter(cls, descriptorName).write();
+        } catch (InaccessibleTypeException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "No registration descriptor generated: " + e.getMessage(), cls);
+            return;
+        }
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(descriptorName, cls).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write registration descriptor " + descriptorName + ": " + e, cls);
+        }
+    }
+
+    /*
+     * Thrown when the descriptor would refer to a type that isn't accessible
+     * from the package of the registered class.
+     */
+    private static final class InaccessibleTypeException extends Exception {
+        InaccessibleTypeException(String message) {
+            super(message);
+        }
+    }
+
+    /*
+     * A property, with the annotation parameters of the first method that
+     * declared it.
+     */
+    private static final class PropertyModel {
+        final String name;
+        final TypeMirror type;
+        final Set<String> flags;
+        final String minimumValue;
+        final String maximumValue;
+        final String defaultValue;
+        @Nullable ExecutableElement getter;
+        @Nullable ExecutableElement setter;
+
+        PropertyModel(String name, TypeMirror type, Set<String> flags,
+                      String minimumValue, String maximumValue, String defaultValue) {
+            this.name = name;
+            this.type = type;
+            this.flags = flags;
+            this.minimumValue = minimumValue;
+            this.maximumValue = maximumValue;
+            this.defaultValue = defaultValue;
+        }
+    }
+
+    /*
+     * Writes the source code of the descriptor of one class.
+     */
+    private final class DescriptorWriter {
+        private final TypeElement cls;
+        private final String packageName;
+        private final String simpleName;
+        private final String className;
+        private final StringBuilder builder = new StringBuilder();
+
+        DescriptorWriter(TypeElement cls, String descriptorName) {
+            this.cls = cls;
+            this.packageName = processingEnv.getElementUtils().getPackageOf(cls).getQualifiedName().toString();
+            this.simpleName = packageName.isEmpty()
+                    ? descriptorName
+                    : descriptorName.substring(packageName.length() + 1);
+            this.className = cls.getQualifiedName().toString();
+        }
+
+        String write() throws InaccessibleTypeException {
+            literal(cls.asType());
+            List<PropertyModel> properties = inferProperties();
+            List<TypeElement> signals = signals();
+            ExecutableElement classInit = classInit();
+            List<ExecutableElement> instanceInits = methodsAnnotatedWith(INSTANCE_INIT);
+            List<VariableElement> templateChildren = templateChildren();
+            Map<String, ExecutableElement> templateCallbacks = templateCallbacks();
+
+            if (!packageName.isEmpty())
+                builder.append("package ").append(packageName).append(";\n\n");
+
+            builder.append("""
+                    /**
+                     * Registration descriptor for {@link %s}, generated by the Java-GI
+                     * annotation processor.
+                     */
+                    public final class %s implements %s {
+
+                        private final java.util.List<%s.PropertyDescriptor> properties;
+                        private final java.util.List<java.lang.Class<?>> signals;
+                        private final java.lang.invoke.MethodHandle classInit;
+                        private final java.util.List<java.lang.invoke.MethodHandle> instanceInits;
+                        private final java.util.List<%s.TemplateChild> templateChildren;
+
+                        public %s() throws java.lang.ReflectiveOperationException {
+                            var lookup = java.lang.invoke.MethodHandles.privateLookupIn(
+                                    %s.class, java.lang.invoke.MethodHandles.lookup());
+                    """.formatted(className, simpleName, DESCRIPTOR, DESCRIPTOR, DESCRIPTOR,
+                                  simpleName, className));
+
+            // Properties
+            var list = new ArrayList<String>();
+            for (var property : properties) {
+                list.add("new %s.PropertyDescriptor(%s, %s, %s, %s, %s, %s, %s, %s)".formatted(
+                        DESCRIPTOR,
+                        string(property.name),
+                        literal(property.type) + ".class",
+                        property.flags.stream()
+                                .map(flag -> "org.gnome.gobject.ParamFlags." + flag)
+                                .collect(Collectors.joining(", ", "java.util.Set.of(", ")")),
+                        parameter(property.minimumValue),
+                        parameter(property.maximumValue),
+                        parameter(property.defaultValue),
+                        property.getter == null ? "null" : findMethod(property.getter),
+                        property.setter == null ? "null" : findMethod(property.setter)));
+            }
+            appendList("properties", list);
+
+            // Signals
+            list.clear();
+            for (var signal : signals)
+                list.add(literal(signal.asType()) + ".class");
+            appendList("signals", list);
+
+            // Class and instance initializers
+            builder.append("        this.classInit = ")
+                   .append(classInit == null ? "null" : findMethod(classInit))
+                   .append(";\n");
+
+            list.clear();
+            for (var instanceInit : instanceInits)
+                list.add(findMethod(instanceInit));
+            appendList("instanceInits", list);
+
+            // Template children
+            list.clear();
+            for (var field : templateChildren) {
+                String name = annotationValue(field, GTK_CHILD, "name");
+                String type = literal(field.asType()) + ".class";
+                list.add("new %s.TemplateChild(%s, %s, lookup.findVarHandle(%s.class, %s, %s))".formatted(
+                        DESCRIPTOR,
+                        string(name.isEmpty() ? field.getSimpleName().toString() : name),
+                        type,
+                        className,
+                        string(field.getSimpleName().toString()),
+                        type));
+            }
+            appendList("templateChildren", list);
+
+            builder.append("""
+                        }
+
+                        @java.lang.Override
+                        public java.util.List<%s.PropertyDescriptor> properties() {
+                            return properties;
+                        }
+
+                        @java.lang.Override
+                        public java.util.List<java.lang.Class<?>> signals() {
+                            return signals;
+                        }
+
+                        @java.lang.Override
+                        public java.lang.invoke.MethodHandle classInit() {
+                            return classInit;
+                        }
+
+                        @java.lang.Override
+                        public java.util.List<java.lang.invoke.MethodHandle> instanceInits() {
+                            return instanceInits;
+                        }
+
+                        @java.lang.Override
+                        public java.util.List<%s.TemplateChild> templateChildren() {
+                            return templateChildren;
+                        }
+
+                        @java.lang.Override
+                        public java.lang.reflect.Method templateCallback(java.lang.String name)
+                                throws java.lang.NoSuchMethodException {
+                            return switch (name) {
+                    """.formatted(DESCRIPTOR, DESCRIPTOR));
+
+            // Template callbacks are resolved when they are used
+            for (var entry : templateCallbacks.entrySet()) {
+                var method = entry.getValue();
+                var params = new StringBuilder();
+                for (var param : method.getParameters())
+                    params.append(", ").append(literal(param.asType())).append(".class");
+                builder.append("            case %s -> %s.class.getDeclaredMethod(%s%s);\n".formatted(
+                        string(entry.getKey()),
+                        className,
+                        string(method.getSimpleName().toString()),
+                        params));
+            }
+
+            builder.append("""
+                                default -> null;
+                            };
+                        }
+                    }
+                    """);
+            return builder.toString();
+        }
+
+        private void appendList(String field, List<String> elements) {
+            builder.append("        this.").append(field).append(" = java.util.List.of(");
+            if (!elements.isEmpty()) {
+                builder.append("\n                ")
+                       .append(String.join(",\n                ", elements));
+            }
+            builder.append(");\n");
+        }
+
+        /*
+         * Find all property methods in the same way as the Properties class
+         * does at runtime: methods annotated with `@Property`, and
+         * `T getFooBar()` and `void setFooBar(T t)` pairs. Static methods are
+         * ignored (bridge and synthetic methods don't exist in the source),
+         * and the methods are processed in order of their names.
+         */
+        private List<PropertyModel> inferProperties() {
+            Map<String, PropertyModel> properties = new LinkedHashMap<>();
+            List<ExecutableElement> methods = new ArrayList<>();
+            for (var method : ElementFilter.methodsIn(cls.getEnclosedElements()))
+                if (!method.getModifiers().contains(Modifier.STATIC))
+                    methods.add(method);
+
+            // Sort the methods by name, so the getters are processed first
+            methods.sort(Comparator.comparing(m -> m.getSimpleName().toString()));
+
+            // Methods with annotation @Property
+            for (var method : methods) {
+                Property p = method.getAnnotation(Property.class);
+                if (p == null || p.skip())
+                    continue;
+
+                String name = p.name();
+                if (name.isBlank())
+                    name = getPropertyName(method.getSimpleName().toString());
+
+                var property = properties.get(name);
+                if (property == null) {
+                    property = new PropertyModel(name, getJavaType(method), getFlags(p),
+                            p.minimumValue(), p.maximumValue(), p.defaultValue());
+                    properties.put(name, property);
+                }
+
+                if (method.getReturnType().getKind() == TypeKind.VOID)
+                    property.setter = method;
+                else
+                    property.getter = method;
+            }
+
+            // Getter methods (`T getFoo()` or `boolean isFoo()`)
+            Map<String, ExecutableElement> possibleGetters = new HashMap<>();
+            for (var method : methods) {
+                if (method.getAnnotation(Property.class) == null && isGetter(method))
+                    possibleGetters.put(getPropertyName(method.getSimpleName().toString()), method);
+            }
+
+            // Setter methods (`void setFoo(T t)`) for which a corresponding
+            // getter method was found
+            var types = processingEnv.getTypeUtils();
+            for (var method : methods) {
+                if (method.getAnnotation(Property.class) != null || !isSetter(method))
+                    continue;
+
+                String name = getPropertyName(method.getSimpleName().toString());
+                var getter = possibleGetters.get(name);
+
+                // Check that the getter and setter have the same type, and
+                // prevent multiple properties with the same name
+                if (getter == null
+                        || !types.isSameType(getJavaType(getter), getJavaType(method))
+                        || properties.containsKey(name))
+                    continue;
+
+                var property = new PropertyModel(name, getJavaType(method),
+                        new LinkedHashSet<>(List.of("READABLE", "WRITABLE")),
+                        NOT_SET, NOT_SET, NOT_SET);
+                property.getter = getter;
+                property.setter = method;
+                properties.put(name, property);
+            }
+
+            return new ArrayList<>(properties.values());
+        }
+
+        /*
+         * getMyProperty(), "isMyProperty()", "setMyProperty()" and
+         * "myProperty" are all converted to "my-property"
+         */
+        private static String getPropertyName(String methodName) {
+            String value;
+            if (methodName.startsWith("is"))
+                value = methodName.substring(2);
+            else if (methodName.startsWith("get") || methodName.startsWith("set"))
+                value = methodName.substring(3);
+            else
+                value = methodName;
+            return value.replaceAll("([a-z0-9])([A-Z])", "$1-$2")
+                        .toLowerCase()
+                        .replaceAll("\\.", "");
+        }
+
+        private static boolean isGetter(ExecutableElement method) {
+            TypeKind returnType = method.getReturnType().getKind();
+            if (returnType == TypeKind.VOID || !method.getParameters().isEmpty())
+                return false;
+
+            String name = method.getSimpleName().toString();
+            if (name.startsWith("get")
+                    && name.length() > 3
+                    && isUpperCase(name.charAt(3)))
+                return true;
+
+            // Boolean getter can be either getFoo() or isFoo()
+            return returnType == TypeKind.BOOLEAN
+                    && name.startsWith("is")
+                    && name.length() > 2
+                    && isUpperCase(name.charAt(2));
+        }
+
+        private static boolean isSetter(ExecutableElement method) {
+            String name = method.getSimpleName().toString();
+            return method.getReturnType().getKind() == TypeKind.VOID
+                    && method.getParameters().size() == 1
+                    && name.startsWith("set")
+                    && name.length() > 3
+                    && isUpperCase(name.charAt(3));
+        }
+
+        /*
+         * The type of the property: the return type of a getter, or the
+         * parameter type of a setter. For a Set of flags, the flags type.
+         */
+        private TypeMirror getJavaType(ExecutableElement method) {
+            var types = processingEnv.getTypeUtils();
+            TypeMirror type = method.getReturnType().getKind() == TypeKind.VOID
+                    ? method.getParameters().getFirst().asType()
+                    : method.getReturnType();
+
+            var set = processingEnv.getElementUtils().getTypeElement("java.util.Set");
+            if (type instanceof DeclaredType dt
+                    && set != null
+                    && types.isAssignable(types.erasure(set.asType()), types.erasure(type))
+                    && dt.getTypeArguments().size() == 1
+                    && dt.getTypeArguments().getFirst() instanceof DeclaredType arg
+                    && arg.asElement().getKind() == ElementKind.ENUM
+                    && hasAnnotation(arg.asElement(), FLAGS))
+                return types.erasure(arg);
+
+            return types.erasure(type);
+        }
+
+        private static Set<String> getFlags(Property property) {
+            Set<String> flags = new LinkedHashSet<>();
+            if (property.readable())       flags.add("READABLE");
+            if (property.writable())       flags.add("WRITABLE");
+            if (property.construct())      flags.add("CONSTRUCT");
+            if (property.constructOnly())  flags.add("CONSTRUCT_ONLY");
+            if (property.explicitNotify()) flags.add("EXPLICIT_NOTIFY");
+            if (property.deprecated())     flags.add("DEPRECATED");
+            return flags;
+        }
+
+        // Nested @Signal-annotated interfaces
+        private List<TypeElement> signals() {
+            var signals = new ArrayList<TypeElement>();
+            for (var type : ElementFilter.typesIn(cls.getEnclosedElements()))
+                if (type.getKind() == ElementKind.INTERFACE && hasAnnotation(type, SIGNAL))
+                    signals.add(type);
+            return signals;
+        }
+
+        // The first static @ClassInit-annotated method
+        private @Nullable ExecutableElement classInit() {
+            for (var method : methodsAnnotatedWith(CLASS_INIT)) {
+                if (method.getModifiers().contains(Modifier.STATIC))
+                    return method;
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "@ClassInit method is not static", method);
+            }
+            return null;
+        }
+
+        // Instance fields annotated with @GtkChild
+        private List<VariableElement> templateChildren() {
+            var fields = new ArrayList<VariableElement>();
+            for (var field : ElementFilter.fieldsIn(cls.getEnclosedElements()))
+                if (hasAnnotation(field, GTK_CHILD) && !field.getModifiers().contains(Modifier.STATIC))
+                    fields.add(field);
+            return fields;
+        }
+
+        // Methods annotated with @GtkCallback, by callback name
+        private Map<String, ExecutableElement> templateCallbacks() {
+            Map<String, ExecutableElement> callbacks = new LinkedHashMap<>();
+            for (var method : methodsAnnotatedWith(GTK_CALLBACK)) {
+                String name = annotationValue(method, GTK_CALLBACK, "name");
+                if (!name.isEmpty())
+                    callbacks.putIfAbsent(name, method);
+            }
+            return callbacks;
+        }
+
+        private List<ExecutableElement> methodsAnnotatedWith(String annotation) {
+            var methods = new ArrayList<ExecutableElement>();
+            for (var method : ElementFilter.methodsIn(cls.getEnclosedElements()))
+                if (hasAnnotation(method, annotation))
+                    methods.add(method);
+            return methods;
+        }
+
+        /*
+         * Generate a call to Lookup.findVirtual() or findStatic() for the
+         * method.
+         */
+        private String findMethod(ExecutableElement method) throws InaccessibleTypeException {
+            var type = new StringBuilder("java.lang.invoke.MethodType.methodType(")
+                    .append(literal(method.getReturnType())).append(".class");
+            for (var param : method.getParameters())
+                type.append(", ").append(literal(param.asType())).append(".class");
+            type.append(")");
+
+            return "lookup.%s(%s.class, %s, %s)".formatted(
+                    method.getModifiers().contains(Modifier.STATIC) ? "findStatic" : "findVirtual",
+                    className,
+                    string(method.getSimpleName().toString()),
+                    type);
+        }
+
+        /*
+         * The source code of a class literal (without ".class") for the
+         * erasure of the type.
+         */
+        private String literal(TypeMirror type) throws InaccessibleTypeException {
+            return switch (type.getKind()) {
+                case BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE, VOID ->
+                        type.getKind().name().toLowerCase(Locale.ROOT);
+                case ARRAY -> literal(((ArrayType) type).getComponentType()) + "[]";
+                case TYPEVAR -> literal(processingEnv.getTypeUtils().erasure(type));
+                case DECLARED -> {
+                    var element = (TypeElement) ((DeclaredType) type).asElement();
+                    if (!isAccessible(element))
+                        throw new InaccessibleTypeException(element + " is not accessible from package " + packageName);
+                    yield element.getQualifiedName().toString();
+                }
+                default -> throw new InaccessibleTypeException("Unsupported type " + type);
+            };
+        }
+
+        // Check if the type can be referenced from the descriptor class
+        private boolean isAccessible(TypeElement type) {
+            Element element = type;
+            while (element instanceof TypeElement te) {
+                if (te.getNestingKind() == NestingKind.LOCAL || te.getNestingKind() == NestingKind.ANONYMOUS)
+                    return false;
+                var modifiers = te.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE))
+                    return false;
+                if (!modifiers.contains(Modifier.PUBLIC)) {
+                    var pkg = processingEnv.getElementUtils().getPackageOf(te).getQualifiedName();
+                    if (!pkg.contentEquals(packageName))
+                        return false;
+                }
+                element = te.getEnclosingElement();
+            }
+            return true;
+        }
+
+        // A @Property parameter value
+        private String parameter(String value) {
+            return NOT_SET.equals(value)
+                    ? Property.class.getCanonicalName() + ".NOT_SET"
+                    : string(value);
+        }
+
+        private String string(String value) {
+            return processingEnv.getElementUtils().getConstantExpression(value);
+        }
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        return annotationMirror(element, annotation) != null;
+    }
+
+    private static @Nullable AnnotationMirror annotationMirror(Element element, String annotation) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            var type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotation))
+                return mirror;
+        }
+        return null;
+    }
+
+    /*
+     * Read a String parameter of an annotation (that is not on the processor
+     * path, so it can't be read with getAnnotation()).
+     */
+    private String annotationValue(Element element, String annotation, String name) {
+        var mirror = annotationMirror(element, annotation);
+        if (mirror == null)
+            return "";
+        var values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (var entry : values.entrySet())
+            if (entry.getKey().getSimpleName().contentEquals(name))
+                return String.valueOf(entry.getValue().getValue());
+        return "";
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Annotation processor that generates registration descriptors for Java
+ * classes that are registered as a GType, so they don't need to be scanned
+ * with reflection at runtime.
+ */
+package org.javagi.gobject.processor;
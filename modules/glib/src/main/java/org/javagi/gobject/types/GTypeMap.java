@@ -0,0 +1,98 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.javagi.gobject.types;
+
+import org.javagi.interop.LongTable;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.LongFunction;
+
+/**
+ * A read-mostly map with primitive {@code long} GType keys.
+ * <p>
+ * The entries are stored in a {@link LongTable}. Lookups don't lock and don't
+ * allocate: they read the current table snapshot from a volatile field.
+ * Updates are synchronized, and publish a modified copy of the table
+ * (copy-on-write). This is a good trade-off because types are registered
+ * only once, but looked up very often.
+ * <p>
+ * The key {@code 0} ({@code G_TYPE_INVALID}) cannot be used.
+ *
+ * @param <V> the type of the values
+ */
+@NullMarked
+final class GTypeMap<V> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // An immutable snapshot of the hash table
+    private volatile LongTable<V> table = new LongTable<>(INITIAL_CAPACITY);
+
+    /**
+     * Get the value for the provided GType.
+     *
+     * @param  gtype the GType
+     * @return the value, or {@code null} when it wasn't found
+     */
+    @Nullable V get(long gtype) {
+        return table.get(gtype);
+    }
+
+    /**
+     * Add or replace the value for the provided GType.
+     *
+     * @param gtype the GType
+     * @param value the value
+     */
+    synchronized void put(long gtype, V value) {
+        if (gtype == 0)
+            throw new IllegalArgumentException("Invalid GType");
+
+        LongTable<V> copy = table.copy();
+        copy.put(gtype, value);
+        table = copy;
+    }
+
+    /**
+     * Get the value for the provided GType. When it isn't found, the value is
+     * computed and added, while holding the lock, so concurrent callers for
+     * the same GType always get the same value.
+     *
+     * @param  gtype the GType
+     * @param  func  creates the value for the GType
+     * @return the existing or computed value
+     */
+    V computeIfAbsent(long gtype, LongFunction<? extends V> func) {
+        V value = get(gtype);
+        if (value != null)
+            return value;
+
+        synchronized (this) {
+            value = get(gtype);
+            if (value == null) {
+                value = func.apply(gtype);
+                put(gtype, value);
+            }
+            return value;
+        }
+    }
+}
@@ -77,6 +77,14 @@ public class Overrides {
                         ValueLayout.ADDRESS),
                 false);
 
+    /*
+     * A Java method that overrides a virtual method, and the generated
+     * "overrideMethodName" method in the typeclass or typeinterface that
+     * installs it in the virtual function table.
+     */
+    private record VirtualMethodOverride(Method method, Method overrider) {
+    }
+
     /*
      * Convert "methodName" to "overrideMethodName"
      */
@@ -107,7 +115,7 @@ public class Overrides {
         Class<?> parentClass = cls.getSuperclass();
 
         // Find all overridden methods
-        List<Method> methods = new ArrayList<>();
+        List<VirtualMethodOverride> overrides = new ArrayList<>();
         for (Method method : cls.getDeclaredMethods()) {
             try {
                 String name = method.getName();
@@ -120,30 +128,29 @@ public class Overrides {
                 continue;
             }
 
-            String name = getOverrideName(method);
+            Method overrider;
             try {
-                typeStruct.getMethod(name, Arena.class, Method.class);
+                overrider = typeStruct.getMethod(getOverrideName(method), Arena.class, Method.class);
             } catch (NoSuchMethodException e) {
                 continue;
             }
 
-            // Make protected methods accessible
+            // Make protected methods accessible, so the typeclass can create
+            // a method handle for it
             method.setAccessible(true);
 
-            methods.add(method);
+            overrides.add(new VirtualMethodOverride(method, overrider));
         }
 
-        if (methods.isEmpty())
+        if (overrides.isEmpty())
             return null;
 
         // Register the overridden methods in the typeclass
         return (gclass) -> {
-            for (Method method : methods) {
-                String name = getOverrideName(method);
+            for (VirtualMethodOverride override : overrides) {
+                Method method = override.method();
                 try {
-                    Method overrider = gclass.getClass()
-                            .getMethod(name, Arena.class, Method.class);
-                    overrider.invoke(gclass, Arena.global(), method);
+                    override.overrider().invoke(gclass, Arena.global(), method);
                 } catch (InvocationTargetException ite) {
                     GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
                             "Cannot override method %s in class %s: %s\n",
@@ -211,35 +218,38 @@ public class Overrides {
         }
 
         // Find all overridden methods
-        List<Method> methods = new ArrayList<>();
+        List<VirtualMethodOverride> overrides = new ArrayList<>();
         for (Method method : cls.getDeclaredMethods()) {
             try {
                 iface.getMethod(method.getName(), method.getParameterTypes());
             } catch (NoSuchMethodException e) {
                 continue;
             }
-            String name = getOverrideName(method);
+            Method overrider;
             try {
-                typeStruct.getMethod(name, Arena.class, Method.class);
+                overrider = typeStruct.getMethod(getOverrideName(method), Arena.class, Method.class);
             } catch (NoSuchMethodException e) {
                 continue;
             }
-            methods.add(method);
+
+            // Make the method accessible, so the typeinterface can create a
+            // method handle for it
+            method.setAccessible(true);
+
+            overrides.add(new VirtualMethodOverride(method, overrider));
         }
 
-        if (methods.isEmpty())
+        if (overrides.isEmpty())
             return null;
 
         // Register the overridden methods in the typeinterface
         return (giface) -> {
-            for (Method method : methods) {
-                String name = getOverrideName(method);
+            for (VirtualMethodOverride override : overrides) {
+                Method method = override.method();
                 try {
                     // upcast to the actual type
                     TI ifaceInstance = constructor.apply(giface.handle());
-                    Method overrider = typeStruct.getMethod(
-                            name, Arena.class, Method.class);
-                    overrider.invoke(ifaceInstance, Arena.global(), method);
+                    override.overrider().invoke(ifaceInstance, Arena.global(), method);
                 } catch (InvocationTargetException ite) {
                     GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
                             "Cannot override method %s from interface %s in class %s: %s\n",
@@ -317,7 +327,7 @@ public class Overrides {
 
             // Get the TypeInterface implemented by the parent TypeClass
             var parentIface = (MemorySegment) g_type_interface_peek.invokeExact(
-                    parentClass,ifaceType.getValue().longValue());
+                    parentClass,ifaceType.longValue());
 
             // Return a pointer to the requested virtual method address in the
             // dispatch table
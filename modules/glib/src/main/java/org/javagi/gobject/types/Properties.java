@@ -27,6 +27,8 @@ import org.javagi.base.Proxy;
 import org.javagi.base.ProxyInstance;
 import org.javagi.gobject.ValueUtil;
 import org.javagi.interop.Interop;
+import org.javagi.interop.InternedStrings;
+import org.javagi.interop.ScratchArena;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
 import org.gnome.glib.Type;
@@ -37,13 +39,19 @@ import org.jspecify.annotations.Nullable;
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.invoke.VarHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+import static java.util.Objects.requireNonNull;
 import static java.util.Objects.requireNonNullElse;
 import static org.javagi.base.Constants.LOG_DOMAIN;
 import static org.javagi.gobject.annotations.Property.NOT_SET;
@@ -55,21 +63,108 @@ import static java.lang.Character.isUpperCase;
 @NullMarked
 public class Properties {
 
+    /*
+     * Ensure that the "gobject-2.0" library has been loaded. This is
+     * required for the downcall handles.
+     */
+    static {
+        GObjects.javagi$ensureInitialized();
+    }
+
+    private static final MethodHandle g_object_class_find_property = Interop.downcallHandle(
+            "g_object_class_find_property",
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            false);
+
+    private static final MethodHandle g_object_set_property = Interop.downcallHandle(
+            "g_object_set_property",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            false);
+
+    private static final MethodHandle g_object_get_property = Interop.downcallHandle(
+            "g_object_get_property",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            false);
+
+    // Used to read the GType of an object instance without creating proxies
+    private static final MemorySegment MEMORY = MemorySegment.NULL.reinterpret(Long.MAX_VALUE);
+
+    // The "value_type" field of a GParamSpec
+    private static final VarHandle VALUE_TYPE = ParamSpec.getMemoryLayout()
+            .varHandle(MemoryLayout.PathElement.groupElement("value_type"));
+
+    /*
+     * The cached metadata of a property: the ParamSpec, the GType of the
+     * property value, and the functions to marshal the value to and from a
+     * GValue.
+     */
+    private record PropertyInfo(ParamSpec pspec,
+                                MemorySegment name,
+                                Type valueType,
+                                Function<Value, @Nullable Object> reader,
+                                BiConsumer<Value, Object> writer) {
+    }
+
+    // GType of the object -> property name -> cached metadata. The installed
+    // properties of a class never change, so the entries are never removed.
+    private static final GTypeMap<Map<String, PropertyInfo>> propertyInfos = new GTypeMap<>();
+
+    /**
+     * Get the cached metadata of a GObject property. When it is not cached
+     * yet, the ParamSpec is looked up in the GObject typeclass.
+     *
+     * @param  gobject      the object instance
+     * @param  propertyName the name of the property
+     * @return the metadata of the property
+     * @throws IllegalArgumentException if a property with this name is not
+     *                                  found for the object
+     */
+    private static PropertyInfo getPropertyInfo(GObject gobject, String propertyName) {
+        long gclass = MEMORY.get(ValueLayout.JAVA_LONG, gobject.handle().address());
+        long gtype = MEMORY.get(ValueLayout.JAVA_LONG, gclass);
+
+        var infos = propertyInfos.computeIfAbsent(gtype, _ -> new ConcurrentHashMap<>());
+
+        var info = infos.get(propertyName);
+        if (info == null) {
+            ParamSpec pspec = getParamSpec(MemorySegment.ofAddress(gclass), new Type(gtype), propertyName);
+            Type valueType = getValueType(pspec);
+            if (valueType.equals(Types.BOXED) || valueType.equals(Types.ENUM) || valueType.equals(Types.FLAGS))
+                valueType = getInnerType(pspec);
+
+            // The property exists, so its name can be interned
+            info = new PropertyInfo(pspec,
+                                    InternedStrings.get(propertyName),
+                                    valueType,
+                                    ValueUtil.reader(valueType),
+                                    ValueUtil.writer(valueType));
+            infos.put(propertyName, info);
+        }
+        return info;
+    }
+
     /**
      * Get the ParamSpec of a GObject property
      *
      * @param  objectClass  the GObject typeclass that has a property installed
      *                      with the provided name
+     * @param  gtype        the GType of the object
      * @param  propertyName the name of the property
      * @return the ParamSpec of the property
      */
-    private static ParamSpec getParamSpec(GObject.ObjectClass objectClass, String propertyName) {
-        ParamSpec pspec = objectClass.findProperty(propertyName);
-        if (pspec == null) {
+    private static ParamSpec getParamSpec(MemorySegment objectClass, Type gtype, String propertyName) {
+        MemorySegment pspec;
+        try (var arena = Arena.ofConfined()) {
+            pspec = (MemorySegment) g_object_class_find_property.invokeExact(
+                    objectClass, arena.allocateFrom(propertyName));
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
+        }
+        if (MemorySegment.NULL.equals(pspec)) {
             throw new IllegalArgumentException("Cannot find property \"%s\" for type %s\n"
-                    .formatted(propertyName, GObjects.typeName(objectClass.readGType())));
+                    .formatted(propertyName, GObjects.typeName(gtype)));
         }
-        return pspec;
+        return (ParamSpec) requireNonNull(InstanceCache.get(pspec, ParamSpec.ParamSpec$Impl::new));
     }
 
     /**
@@ -90,9 +185,7 @@ public class Properties {
     private static Type getInnerType(ParamSpec pspec) {
         // ParamSpec is a class, not a record, so Java-GI doesn't generate
         // read/write methods for its fields.
-        MemoryLayout.PathElement path = MemoryLayout.PathElement.groupElement("value_type");
-        VarHandle _varHandle = ParamSpec.getMemoryLayout().varHandle(path);
-        long _result = (long) _varHandle.get(pspec.handle(), 0);
+        long _result = (long) VALUE_TYPE.get(pspec.handle(), 0);
         return new Type(_result);
     }
 
@@ -105,17 +198,19 @@ public class Properties {
      *                                  found for the object
      */
     public static void setProperty(GObject gobject, String propertyName, @Nullable Object propertyValue) {
-        GObject.ObjectClass gclass = (GObject.ObjectClass) gobject.readGClass();
-        ParamSpec pspec = getParamSpec(gclass, propertyName);
-        Type valueType = getValueType(pspec);
-
-        if (List.of(Types.BOXED, Types.ENUM, Types.FLAGS).contains(valueType))
-            valueType = getInnerType(pspec);
-
-        try (var arena = Arena.ofConfined()) {
-            var gvalue = new Value(arena).init(valueType);
-            if (ValueUtil.objectToValue(propertyValue, gvalue))
-                gobject.setProperty(propertyName, gvalue);
+        PropertyInfo info = getPropertyInfo(gobject, propertyName);
+
+        // The GValue is allocated in the scratch buffer of the thread
+        try (var arena = ScratchArena.open()) {
+            var gvalue = new Value(arena).init(info.valueType());
+            if (propertyValue != null) {
+                info.writer().accept(gvalue, propertyValue);
+                try {
+                    g_object_set_property.invokeExact(gobject.handle(), info.name(), gvalue.handle());
+                } catch (Throwable _err) {
+                    throw new AssertionError(_err);
+                }
+            }
             gvalue.unset();
         }
     }
@@ -130,17 +225,17 @@ public class Properties {
      *                                  found for the object
      */
     public static @Nullable Object getProperty(GObject gobject, String propertyName) {
-        GObject.ObjectClass gclass = (GObject.ObjectClass) gobject.readGClass();
-        ParamSpec pspec = getParamSpec(gclass, propertyName);
-        Type valueType = getValueType(pspec);
-
-        if (List.of(Types.BOXED, Types.ENUM, Types.FLAGS).contains(valueType))
-            valueType = getInnerType(pspec);
-
-        try (var arena = Arena.ofConfined()) {
-            var gvalue = new Value(arena).init(valueType);
-            gobject.getProperty(propertyName, gvalue);
-            return ValueUtil.valueToObject(gvalue);
+        PropertyInfo info = getPropertyInfo(gobject, propertyName);
+
+        // The GValue is allocated in the scratch buffer of the thread
+        try (var arena = ScratchArena.open()) {
+            var gvalue = new Value(arena).init(info.valueType());
+            try {
+                g_object_get_property.invokeExact(gobject.handle(), info.name(), gvalue.handle());
+            } catch (Throwable _err) {
+                throw new AssertionError(_err);
+            }
+            return info.reader().apply(gvalue);
         }
     }
 
@@ -455,9 +550,40 @@ public class Properties {
                 && method.getAnnotation(Property.class).skip();
     }
 
+    /*
+     * The compiled getter and setter of a property. Both method handles have
+     * type (GObject, Value)void.
+     */
+    private record Accessor(String name,
+                            @Nullable MethodHandle getter,
+                            @Nullable MethodHandle setter,
+                            boolean hasDefaultValue,
+                            @Nullable Object defaultValue) {
+    }
+
+    private static final MethodType ACCESSOR_TYPE =
+            MethodType.methodType(void.class, GObject.class, Value.class);
+
+    private static final MethodHandle WRITE_OBJECT;
+    private static final MethodHandle READ_OBJECT;
+    private static final MethodHandle NON_NULL;
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            WRITE_OBJECT = lookup.findStatic(Properties.class, "writeObject",
+                    MethodType.methodType(void.class, BiConsumer.class, Value.class, Object.class));
+            READ_OBJECT = lookup.findStatic(Properties.class, "readObject",
+                    MethodType.methodType(Object.class, Function.class, Value.class));
+            NON_NULL = lookup.findStatic(Objects.class, "nonNull",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     private final Map<Integer, String> names;
-    private final Map<Integer, Method> getters;
-    private final Map<Integer, Method> setters;
+    private final Map<Integer, MethodHandle> getters;
+    private final Map<Integer, MethodHandle> setters;
     private final Map<Integer, ParamSpec> paramSpecs;
     private final Map<Integer, @Nullable Object> defaultValues;
     private int index = 0;
@@ -470,16 +596,47 @@ public class Properties {
         defaultValues = new HashMap<>();
     }
 
+    /*
+     * Add the properties from a generated registration descriptor. The
+     * processor has already inferred the properties in the same way as
+     * inferProperties() below.
+     */
+    private void describedProperties(RegistrationDescriptor descriptor) {
+        for (var property : descriptor.properties()) {
+            index++;
+            names.put(index, property.name());
+            if (property.getter() != null)
+                getters.put(index, property.getter());
+            if (property.setter() != null)
+                setters.put(index, property.setter());
+
+            try {
+                var javaType = property.type();
+                var paramSpecClass = getParamSpecClass(javaType);
+                createParamSpec(javaType, paramSpecClass, property.name(), property.flags(),
+                        property.minimumValue(), property.maximumValue(), property.defaultValue());
+            } catch (IllegalArgumentException _) {
+                // ignore getter/setter with unsupported type
+                index--;
+            }
+        }
+    }
+
     /*
      * Find all property methods: `T getFooBar()`, `void setFooBar(T t)`, and
      * methods annotated with `@Property`. The results are put in the hashmaps.
+     * The RegistrationProcessor uses the same rules: static, bridge and
+     * synthetic methods are ignored, and the methods are processed in order
+     * of their names.
      */
     private void inferProperties(Class<?> cls) {
         Map<String, Method> possibleGetters = new HashMap<>();
 
         // Create a sorted list of Methods so the getters are processed first
-        var methods = cls.getDeclaredMethods();
-        Arrays.sort(methods, Comparator.comparing(Method::getName));
+        var methods = Arrays.stream(cls.getDeclaredMethods())
+                .filter(m -> !Modifier.isStatic(m.getModifiers()) && !m.isBridge() && !m.isSynthetic())
+                .sorted(Comparator.comparing(Method::getName))
+                .toArray(Method[]::new);
 
         // Methods with annotation @Property
         for (var method : methods) {
@@ -496,9 +653,9 @@ public class Properties {
                         if (entry.getValue().equals(name)) {
                             int id = entry.getKey();
                             if (method.getReturnType().equals(void.class))
-                                setters.put(id, method);
+                                setters.put(id, Interop.unreflect(method));
                             else
-                                getters.put(id, method);
+                                getters.put(id, Interop.unreflect(method));
                             break;
                         }
                     }
@@ -506,9 +663,9 @@ public class Properties {
                     index++;
                     names.put(index, name);
                     if (method.getReturnType().equals(void.class))
-                        setters.put(index, method);
+                        setters.put(index, Interop.unreflect(method));
                     else
-                        getters.put(index, method);
+                        getters.put(index, Interop.unreflect(method));
 
                     try {
                         var flags = getFlags(p);
@@ -525,7 +682,7 @@ public class Properties {
         }
 
         // Getter methods (`T getFoo()` or `boolean isFoo()`)
-        for (var method : cls.getDeclaredMethods()) {
+        for (var method : methods) {
             if (method.isAnnotationPresent(Property.class))
                 continue;
 
@@ -535,7 +692,7 @@ public class Properties {
 
         // Setter methods (`void setFoo(T t)`) for which a corresponding
         // getter method was found
-        for (var method : cls.getDeclaredMethods()) {
+        for (var method : methods) {
             if (method.isAnnotationPresent(Property.class))
                 continue;
 
@@ -554,8 +711,8 @@ public class Properties {
 
                     index++;
                     names.put(index, name);
-                    getters.put(index, getter);
-                    setters.put(index, method);
+                    getters.put(index, Interop.unreflect(getter));
+                    setters.put(index, Interop.unreflect(method));
 
                     try {
                         var javaType = getJavaType(method);
@@ -601,10 +758,18 @@ public class Properties {
         if (isClojureProxy(cls))
             return null;
 
-        inferProperties(cls);
+        var descriptor = RegistrationDescriptor.of(cls);
+        if (descriptor != null)
+            describedProperties(descriptor);
+        else
+            inferProperties(cls);
+
         if (index == 0)
             return null;
 
+        // Compile the getters and setters, indexed by property id
+        Accessor[] accessors = compileAccessors();
+
         // Return class initializer method that installs the properties.
         return (gclass) -> {
             // Override the get_property virtual method
@@ -618,54 +783,30 @@ public class Properties {
                     return;
                 }
 
-                String name = names.get(propertyId);
-                if (name == null) name = "";
-                Method getter = getters.get(propertyId);
-
-                Object output = null;
+                Accessor accessor = accessors[propertyId];
+                if (value == null) {
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "Error in %s.getProperty('%s'): GValue is null\n",
+                            cls.getSimpleName(), accessor.name());
+                    return;
+                }
 
-                if (getter == null && defaultValues.containsKey(propertyId)) {
-                    output = defaultValues.get(propertyId);
+                MethodHandle getter = accessor.getter();
+                if (getter == null && accessor.hasDefaultValue()) {
+                    ValueUtil.objectToValue(accessor.defaultValue(), value);
+                    return;
                 } else if (getter == null) {
                     GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
                             "No getter method defined for property with ID=%d and name='%s' in %s\n",
-                            propertyId, name, cls.getSimpleName());
+                            propertyId, accessor.name(), cls.getSimpleName());
                     return;
                 }
 
-                // Invoke the getter method
-                if (output == null && getter != null) {
-                    try {
-                        output = getter.invoke(object);
-                    } catch (InvocationTargetException e) {
-                        // Log exceptions thrown by the getter method
-                        Throwable t = e.getTargetException();
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "%s.getProperty('%s'): %s\n",
-                                cls.getSimpleName(), name, t.toString());
-                        return;
-                    } catch (IllegalAccessException e) {
-                        // Tried to call a private method
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "IllegalAccessException calling %s.getProperty('%s')\n",
-                                cls.getSimpleName(), name);
-                        return;
-                    }
-                }
-
-                // Convert return value to GValue
-                if (output != null) {
-                    var success = ValueUtil.objectToValue(output, value);
-                    if (!success) {
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "Error in %s.getProperty('%s'): Cannot write return-value " +
-                                        "with Java type %s into GValue with GType %s\n",
-                                cls.getSimpleName(), name, output.getClass().getSimpleName(),
-                                value == null
-                                        ? "null"
-                                        : requireNonNullElse(GObjects.typeName(value.readGType()),
-                                                             "null"));
-                    }
+                // Invoke the getter method and write the result in the GValue
+                try {
+                    getter.invokeExact(object, value);
+                } catch (Throwable t) {
+                    logAccessorError(cls, "getProperty", accessor.name(), t);
                 }
             }, Arena.global());
 
@@ -679,35 +820,21 @@ public class Properties {
                     return;
                 }
 
-                String name = names.get(propertyId);
-                if (name == null) name = "";
-                Method setter = setters.get(propertyId);
-
+                Accessor accessor = accessors[propertyId];
+                MethodHandle setter = accessor.setter();
                 if (setter == null) {
                     GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                            "No getter method defined for property with ID=%d and name='%s' in %s\n",
-                            propertyId, name, cls.getSimpleName());
+                            "No setter method defined for property with ID=%d and name='%s' in %s\n",
+                            propertyId, accessor.name(), cls.getSimpleName());
                     return;
                 }
 
-                // Convert argument to GValue
-                Object input = ValueUtil.valueToObject(value);
-
-                // Invoke the setter method
-                if (input != null) {
+                // Read the GValue and invoke the setter method
+                if (value != null) {
                     try {
-                        setter.invoke(object, input);
-                    } catch (InvocationTargetException e) {
-                        // Log exceptions thrown by the setter method
-                        Throwable t = e.getTargetException();
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "%s.setProperty('%s'): %s\n",
-                                cls.getSimpleName(), name, t.toString());
-                    } catch (IllegalAccessException e) {
-                        // Tried to call a private method
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "IllegalAccessException calling %s.setProperty('%s')\n",
-                                cls.getSimpleName(), name);
+                        setter.invokeExact(object, value);
+                    } catch (Throwable t) {
+                        logAccessorError(cls, "setProperty", accessor.name(), t);
                     }
                 }
             }, Arena.global());
@@ -734,6 +861,122 @@ public class Properties {
         };
     }
 
+    /*
+     * Compile the getter and setter methods of all properties into method
+     * handles of type (GObject, Value)void.
+     */
+    private Accessor[] compileAccessors() {
+        var accessors = new Accessor[index + 1];
+        for (int id = 1; id <= index; id++) {
+            Type valueType = getInnerType(requireNonNull(paramSpecs.get(id)));
+            MethodHandle getter = getters.get(id);
+            MethodHandle setter = setters.get(id);
+            accessors[id] = new Accessor(
+                    requireNonNullElse(names.get(id), ""),
+                    getter == null ? null : compileGetter(getter, valueType),
+                    setter == null ? null : compileSetter(setter, valueType),
+                    defaultValues.containsKey(id),
+                    defaultValues.get(id));
+        }
+        return accessors;
+    }
+
+    /*
+     * Create a method handle that invokes the getter method, and writes the
+     * result into a GValue. For boolean, int, float and double properties,
+     * the primitive value is written directly, so it isn't boxed.
+     */
+    private static MethodHandle compileGetter(MethodHandle getter, Type valueType) {
+        Class<?> javaType = getter.type().returnType();
+        MethodHandle write = primitiveAccessor("set", javaType, valueType);
+        if (write == null) {
+            // Box the value and write it with the marshaller of the GType
+            javaType = Object.class;
+            write = MethodHandles.insertArguments(WRITE_OBJECT, 0, ValueUtil.writer(valueType));
+        }
+        getter = getter.asType(MethodType.methodType(javaType, GObject.class));
+
+        // (Value, GObject) -> write(value, getter(object))
+        MethodHandle combined = MethodHandles.collectArguments(write, 1, getter);
+        return MethodHandles.permuteArguments(combined, ACCESSOR_TYPE, 1, 0);
+    }
+
+    /*
+     * Create a method handle that reads a GValue and invokes the setter
+     * method with the result. For boolean, int, float and double properties,
+     * the primitive value is read directly, so it isn't boxed. For other
+     * types, the setter is not invoked when the value is null.
+     */
+    private static MethodHandle compileSetter(MethodHandle setter, Type valueType) {
+        Class<?> javaType = setter.type().parameterType(1);
+        MethodHandle read = primitiveAccessor("get", javaType, valueType);
+        if (read == null) {
+            // Read the value with the marshaller of the GType, and skip null
+            read = MethodHandles.insertArguments(READ_OBJECT, 0, ValueUtil.reader(valueType));
+            var type = MethodType.methodType(void.class, GObject.class, Object.class);
+            setter = MethodHandles.guardWithTest(
+                    MethodHandles.dropArguments(NON_NULL, 0, GObject.class),
+                    setter.asType(type),
+                    MethodHandles.empty(type));
+        } else {
+            setter = setter.asType(MethodType.methodType(void.class, GObject.class, javaType));
+        }
+
+        // (GObject, Value) -> setter(object, read(value))
+        return MethodHandles.filterArguments(setter, 1, read);
+    }
+
+    /*
+     * Get a method handle for a getter ("get") or setter ("set") method of
+     * the Value class for the provided primitive type, or null when the type
+     * isn't primitive or doesn't match the GType of the property.
+     */
+    private static @Nullable MethodHandle primitiveAccessor(String prefix, Class<?> javaType, Type valueType) {
+        String name;
+        if      (javaType == boolean.class && valueType.equals(Types.BOOLEAN)) name = "Boolean";
+        else if (javaType == int.class     && valueType.equals(Types.INT))     name = "Int";
+        else if (javaType == float.class   && valueType.equals(Types.FLOAT))   name = "Float";
+        else if (javaType == double.class  && valueType.equals(Types.DOUBLE))  name = "Double";
+        else return null;
+
+        var type = prefix.equals("get")
+                ? MethodType.methodType(javaType)
+                : MethodType.methodType(void.class, javaType);
+        try {
+            return MethodHandles.lookup().findVirtual(Value.class, prefix + name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void logAccessorError(Class<?> cls, String accessor, String name, Throwable t) {
+        if (t instanceof InvocationTargetException e)
+            t = e.getTargetException();
+
+        if (t instanceof IllegalAccessException) {
+            // Tried to call a private method
+            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                    "IllegalAccessException calling %s.%s('%s')\n",
+                    cls.getSimpleName(), accessor, name);
+        } else {
+            // Log exceptions thrown by the getter or setter method
+            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                    "%s.%s('%s'): %s\n",
+                    cls.getSimpleName(), accessor, name, t.toString());
+        }
+    }
+
+    // Write a boxed value into a GValue, unless it is null
+    private static void writeObject(BiConsumer<Value, Object> writer, Value dest, @Nullable Object src) {
+        if (src != null)
+            writer.accept(dest, src);
+    }
+
+    // Read a boxed value from a GValue
+    private static @Nullable Object readObject(Function<Value, @Nullable Object> reader, Value src) {
+        return reader.apply(src);
+    }
+
     private static final VarHandle get_property =
             GObject.ObjectClass.getMemoryLayout().varHandle(
                     MemoryLayout.PathElement.groupElement("get_property"));
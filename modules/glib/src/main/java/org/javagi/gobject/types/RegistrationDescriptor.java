@@ -0,0 +1,155 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.gobject.types;
+
+import org.gnome.gobject.ParamFlags;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The registration metadata of a Java class that is registered as a GType:
+ * its properties, signals, class and instance initializers, and (for Gtk
+ * composite template classes) template children and callbacks.
+ * <p>
+ * Descriptors are generated at compile time by the
+ * {@code org.javagi.gobject.processor.RegistrationProcessor} annotation
+ * processor, in a class named {@code <class name>$$Registration} in the same
+ * package as the registered class. All members are resolved with method
+ * handles when the descriptor is created, so the registration of the class
+ * doesn't need to scan the class with reflection. When no descriptor exists
+ * for a class (or it cannot be created), the class is scanned with reflection
+ * instead.
+ */
+@NullMarked
+public interface RegistrationDescriptor {
+
+    /**
+     * The name suffix of generated descriptor classes
+     */
+    String SUFFIX = "$$Registration";
+
+    /**
+     * A property that is declared with {@code @Property}-annotated methods or
+     * inferred from a getter and setter method pair.
+     *
+     * @param name         the name of the property
+     * @param type         the Java type of the property
+     * @param flags        the property flags
+     * @param minimumValue the minimum value, or {@code Property.NOT_SET}
+     * @param maximumValue the maximum value, or {@code Property.NOT_SET}
+     * @param defaultValue the default value, or {@code Property.NOT_SET}
+     * @param getter       the getter method, or null for a write-only property
+     * @param setter       the setter method, or null for a read-only property
+     */
+    record PropertyDescriptor(String name,
+                              Class<?> type,
+                              Set<ParamFlags> flags,
+                              String minimumValue,
+                              String maximumValue,
+                              String defaultValue,
+                              @Nullable MethodHandle getter,
+                              @Nullable MethodHandle setter) {
+    }
+
+    /**
+     * A {@code @GtkChild}-annotated field.
+     *
+     * @param name  the name of the template child
+     * @param type  the type of the field
+     * @param field a handle to the (instance) field
+     */
+    record TemplateChild(String name, Class<?> type, VarHandle field) {
+    }
+
+    /**
+     * The properties, ordered by property id.
+     *
+     * @return the properties of the class
+     */
+    default List<PropertyDescriptor> properties() {
+        return List.of();
+    }
+
+    /**
+     * The nested {@code @Signal}-annotated functional interfaces.
+     *
+     * @return the signal declarations of the class
+     */
+    default List<Class<?>> signals() {
+        return List.of();
+    }
+
+    /**
+     * The static {@code @ClassInit}-annotated method.
+     *
+     * @return the class initializer, or null when the class doesn't have one
+     */
+    default @Nullable MethodHandle classInit() {
+        return null;
+    }
+
+    /**
+     * The {@code @InstanceInit}-annotated methods.
+     *
+     * @return the instance initializers of the class
+     */
+    default List<MethodHandle> instanceInits() {
+        return List.of();
+    }
+
+    /**
+     * The {@code @GtkChild}-annotated fields.
+     *
+     * @return the template children of the class
+     */
+    default List<TemplateChild> templateChildren() {
+        return List.of();
+    }
+
+    /**
+     * Get the {@code @GtkCallback}-annotated method with the provided
+     * callback name.
+     *
+     * @param  name the callback name
+     * @return the method, or null when no method is annotated with this name
+     * @throws NoSuchMethodException when the method doesn't exist anymore
+     */
+    default @Nullable Method templateCallback(String name) throws NoSuchMethodException {
+        return null;
+    }
+
+    /**
+     * Get the registration descriptor of a class. The descriptor is created
+     * once, and cached.
+     *
+     * @param  cls the registered class
+     * @return the descriptor, or null when no descriptor was generated for
+     *         the class
+     */
+    static @Nullable RegistrationDescriptor of(Class<?> cls) {
+        return RegistrationDescriptors.get(cls);
+    }
+}
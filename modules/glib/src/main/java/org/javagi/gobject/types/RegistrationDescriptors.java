@@ -0,0 +1,83 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.gobject.types;
+
+import org.gnome.glib.GLib;
+import org.gnome.glib.LogLevelFlags;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+
+import static org.javagi.base.Constants.LOG_DOMAIN;
+
+/*
+ * Loads and caches the generated registration descriptors. A descriptor that
+ * cannot be created (for example because the class was changed after it was
+ * generated) is logged and ignored, so the class will be scanned with
+ * reflection.
+ */
+@NullMarked
+final class RegistrationDescriptors {
+
+    private static final ClassValue<Optional<RegistrationDescriptor>> descriptors = new ClassValue<>() {
+        @Override
+        protected Optional<RegistrationDescriptor> computeValue(Class<?> cls) {
+            return Optional.ofNullable(load(cls));
+        }
+    };
+
+    private RegistrationDescriptors() {
+    }
+
+    static @Nullable RegistrationDescriptor get(Class<?> cls) {
+        return descriptors.get(cls).orElse(null);
+    }
+
+    private static @Nullable RegistrationDescriptor load(Class<?> cls) {
+        ClassLoader loader = cls.getClassLoader();
+        if (loader == null || cls.isArray() || cls.isPrimitive())
+            return null;
+
+        Class<?> descriptorClass;
+        try {
+            descriptorClass = Class.forName(cls.getName() + RegistrationDescriptor.SUFFIX, true, loader);
+        } catch (ClassNotFoundException _) {
+            return null;
+        }
+
+        Throwable error;
+        try {
+            return descriptorClass.asSubclass(RegistrationDescriptor.class)
+                    .getConstructor()
+                    .newInstance();
+        } catch (InvocationTargetException ite) {
+            error = ite.getTargetException();
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+            error = e;
+        }
+
+        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_WARNING,
+                "Cannot create registration descriptor for %s: %s\n",
+                cls.getName(), error.toString());
+        return null;
+    }
+}
@@ -41,7 +41,9 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -82,6 +84,12 @@ public class Signals {
                         ValueLayout.ADDRESS, ValueLayout.ADDRESS),
                 true);
 
+    // The signal id and detail quark of a detailed signal name
+    private record ParsedSignal(int signalId, int detail) {}
+
+    // The detailed signal names that were parsed by emit(), for each GType
+    private static final GTypeMap<Map<String, ParsedSignal>> parsedSignals = new GTypeMap<>();
+
     private record SignalDeclaration(String signalName,
                                      Set<SignalFlags> signalFlags,
                                      Type returnType,
@@ -148,8 +156,15 @@ public class Signals {
     public static @Nullable Consumer<TypeClass> installSignals(Class<?> cls) {
 
         List<SignalDeclaration> signalDeclarations = new ArrayList<>();
-        
-        for (var iface : cls.getDeclaredClasses()) {
+
+        // Use the signal declarations from the registration descriptor, or
+        // else scan the nested classes
+        var descriptor = RegistrationDescriptor.of(cls);
+        var declaredClasses = descriptor != null
+                ? descriptor.signals()
+                : List.of(cls.getDeclaredClasses());
+
+        for (var iface : declaredClasses) {
 
             // Look for functional interface declarations...
             if (! iface.isInterface())
@@ -227,19 +242,14 @@ public class Signals {
         Type gtype = TypeCache.getType(gobject.getClass());
 
         // Parse the detailed signal name into a signal id and detail quark
-        Out<Integer> signalId = new Out<>();
-        Quark detailQ = new Quark(0);
-        boolean success = GObjects.signalParseName(
-                detailedSignal, gtype, signalId, detailQ, false);
-
-        if (! success)
-            throw new IllegalArgumentException("Invalid signal \"%s\" for class %s"
-                    .formatted(detailedSignal, gobject));
+        ParsedSignal signal = parseSignalName(gobject, gtype, detailedSignal);
+        int signalId = signal.signalId();
+        Quark detailQ = new Quark(signal.detail());
 
         try (var arena = Arena.ofConfined()) {
             // Query the parameter details of the signal
             SignalQuery query = new SignalQuery(arena);
-            GObjects.signalQuery(signalId.get(), query);
+            GObjects.signalQuery(signalId, query);
 
             // Create an array of Types for the parameters
             int nParams = query.readNParams();
@@ -271,7 +281,7 @@ public class Signals {
             }
 
             // Emit the signal
-            GObjects.signalEmitv(values, signalId.get(), detailQ, returnValue);
+            GObjects.signalEmitv(values, signalId, detailQ, returnValue);
 
             // Return the result (if any)
             Object result = Types.NONE.equals(returnType)
@@ -288,6 +298,30 @@ public class Signals {
         }
     }
 
+    /*
+     * Parse the detailed signal name with g_signal_parse_name(). The result
+     * is cached for the GType, so a signal name is only parsed once.
+     */
+    private static ParsedSignal parseSignalName(GObject gobject, Type gtype, String detailedSignal) {
+        var signals = parsedSignals.computeIfAbsent(gtype.longValue(), _ -> new ConcurrentHashMap<>());
+        var signal = signals.get(detailedSignal);
+        if (signal != null)
+            return signal;
+
+        Out<Integer> signalId = new Out<>();
+        Quark detailQ = new Quark(0);
+        boolean success = GObjects.signalParseName(
+                detailedSignal, gtype, signalId, detailQ, false);
+
+        if (! success)
+            throw new IllegalArgumentException("Invalid signal \"%s\" for class %s"
+                    .formatted(detailedSignal, gobject));
+
+        signal = new ParsedSignal(signalId.get(), detailQ.getValue());
+        signals.put(detailedSignal, signal);
+        return signal;
+    }
+
     /**
      * Get the single abstract method (SAM) implementation of a functional
      * interface. A functional interface has exactly one abstract method.
@@ -22,17 +22,17 @@ package org.javagi.gobject.types;
 import java.lang.foreign.MemorySegment;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.gnome.glib.Type;
 import org.gnome.gobject.GObjects;
-import org.gnome.gobject.TypeClass;
-import org.gnome.gobject.TypeInstance;
 
 import org.javagi.base.Proxy;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 import static org.javagi.gobject.types.Types.IS_FUNDAMENTAL;
 import static java.util.Objects.requireNonNull;
 
@@ -44,18 +44,55 @@ import static java.util.Objects.requireNonNull;
 @NullMarked
 public class TypeCache {
 
-    private final static Map<Type, Function<MemorySegment, ? extends Proxy>> typeRegister
-            = new ConcurrentHashMap<>();
+    // The registers are keyed by the primitive GType value, so a lookup
+    // doesn't need to allocate a Type instance or box a Long.
+    private final static GTypeMap<Function<MemorySegment, ? extends Proxy>> typeRegister
+            = new GTypeMap<>();
 
-    private final static Map<Type, Function<MemorySegment, ? extends Proxy>> typeClassRegister
-            = new ConcurrentHashMap<>();
+    private final static GTypeMap<Function<MemorySegment, ? extends Proxy>> typeClassRegister
+            = new GTypeMap<>();
+
+    private final static GTypeMap<Function<Integer, ?>> enumTypeRegister
+            = new GTypeMap<>();
+
+    // The Java class of the instances that are created by the registered
+    // constructors, when it is known
+    private final static GTypeMap<Class<?>> typeClasses
+            = new GTypeMap<>();
+
+    // The constructor (and its Java class) that was found for a GType without
+    // a registered constructor, or (null, null) when nothing was found. The
+    // generation is the number of registered constructors at that time.
+    private record Resolution(@Nullable Function<MemorySegment, ? extends Proxy> ctor,
+                              @Nullable Class<?> cls,
+                              int generation) {
+    }
+
+    private final static GTypeMap<Resolution> resolved
+            = new GTypeMap<>();
 
-    private final static Map<Type, Function<Integer, ?>> enumTypeRegister
+    // Incremented when a constructor is registered. A resolution from an
+    // earlier generation may be outdated, and is resolved again on lookup.
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private static final Map<Class<?>, Class<?>> fallbackClasses
             = new ConcurrentHashMap<>();
 
+    // Used to read the GType of a native instance without allocating
+    private static final MemorySegment MEMORY = MemorySegment.NULL.reinterpret(Long.MAX_VALUE);
+
     private final static Map<Class<?>, Type> classToTypeMap
             = new ConcurrentHashMap<>();
 
+    // Caches the result of getType() for each class. A class is only looked
+    // up (or registered) in the classToTypeMap once.
+    private static final ClassValue<Type> classToType = new ClassValue<>() {
+        @Override
+        protected Type computeValue(Class<?> cls) {
+            return lookupOrRegister(cls);
+        }
+    };
+
     private static final Map<Class<? extends Proxy>, Function<Class<? extends Proxy>, Type>> typeRegisterFunctions
             = new ConcurrentHashMap<>();
 
@@ -82,23 +119,43 @@ public class TypeCache {
         if (address.equals(MemorySegment.NULL))
             return null;
 
-        // Read the TypeClass from memory
-        TypeClass gclass = new TypeInstance(address).readGClass();
-        if (gclass == null)
+        // Read the TypeClass (the first field of the TypeInstance)
+        long gclass = MEMORY.get(JAVA_LONG, address.address());
+        if (gclass == 0)
             return null;
 
-        // Read the gtype from memory
-        Type type = gclass.readGType();
-        return getConstructor(type, fallback);
+        // Read the gtype (the first field of the TypeClass)
+        long gtype = MEMORY.get(JAVA_LONG, gclass);
+        return getConstructor(gtype, fallback);
+    }
+
+    /**
+     * Get the constructor from the type registry for the provided GType.
+     * This is the same as {@link #getConstructor(Type, Function)}, but it
+     * doesn't allocate when the constructor is found.
+     *
+     * @param gtype    the GType for which the constructor was registered
+     * @param fallback if none was found, this constructor will be registered
+     *                 for the type, and returned
+     * @return         the constructor, or {@code null} if none was found and
+     *                 no fallback was provided
+     */
+    public static @Nullable Function<MemorySegment, ? extends Proxy>
+    getConstructor(long gtype, @Nullable Function<MemorySegment, ? extends Proxy> fallback) {
+        Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(gtype);
+        if (ctor != null)
+            return ctor;
+
+        return getConstructor(new Type(gtype), fallback);
     }
-    
+
     /**
      * Get the constructor from the type registry for the provided GType.
      * If it isn't found, we are probably dealing with an anonymous subclass or
      * interface implementation. So we try to find a constructor for the parent
-     * type and the implemented interfaces. If that works, it is registered as
-     * the constructor for the GType and returned. Otherwise, the provided
-     * fallback constructor is registered and returned.
+     * type and the implemented interfaces. If that works, the result is cached
+     * for the GType and returned. Otherwise, the provided fallback constructor
+     * is registered and returned.
      *
      * @param type     the GType for which the constructor was registered
      * @param fallback if none was found, this constructor will be registered
@@ -109,20 +166,44 @@ public class TypeCache {
     public static @Nullable Function<MemorySegment, ? extends Proxy>
     getConstructor(Type type, @Nullable Function<MemorySegment, ? extends Proxy> fallback) {
         // Find the constructor in the typeRegister and return it
-        Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(type);
+        long gtype = type.longValue();
+        Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(gtype);
         if (ctor != null)
             return ctor;
 
         // Get the class of the fallback constructor. Whatever constructor we
         // return, must produce instances derived from this class.
-        var cls = fallback == null ? null : fallback.apply(MemorySegment.NULL).getClass();
+        var cls = fallback == null ? null : fallbackClass(fallback);
+
+        // Was the type resolved before, after the last registration?
+        var resolution = resolved.get(gtype);
+        if (resolution != null && resolution.generation() == generation.get()) {
+            if (resolution.ctor() != null && (cls == null || cls.isAssignableFrom(resolution.cls())))
+                return resolution.ctor();
+            if (resolution.ctor() == null)
+                return registerFallback(gtype, fallback, cls);
+        }
+
+        // Resolve the constructor and cache the result
+        int current = generation.get();
+        var result = resolve(type, cls, current);
+        if (result != null)
+            resolved.put(gtype, result);
+        else if (cls == null)
+            resolved.put(gtype, new Resolution(null, null, current));
+
+        return result != null ? result.ctor() : registerFallback(gtype, fallback, cls);
+    }
 
+    // Try to find a constructor for the parent type and the implemented
+    // interfaces that produces an instance of {@code base}.
+    private static @Nullable Resolution resolve(Type type, @Nullable Class<?> base, int generation) {
         // Check parent type, unless it is a fundamental type (like GObject),
         // which would be the most generic and useless type we can use. So in
         // that case we first try all other available options.
         var parent = GObjects.typeParent(type);
         if (!IS_FUNDAMENTAL(parent)) {
-            var result = tryConstruct(cls, parent);
+            var result = tryConstruct(base, parent, generation);
             if (result != null)
                 return result;
         }
@@ -131,37 +212,83 @@ public class TypeCache {
         var typeInterfaces = GObjects.typeInterfaces(type);
         if (typeInterfaces != null) {
             for (var iface : typeInterfaces) {
-                var result = tryConstruct(cls, iface);
+                var result = tryConstruct(base, iface, generation);
                 if (result != null)
                     return result;
             }
         }
 
-        // Register the fallback constructor for this type
-        if (fallback != null) {
-            typeRegister.put(type, fallback);
-            return fallback;
-        }
-
         // No fallback was provided, return parent (fundamental type)
-        return tryConstruct(null, parent);
+        return base == null ? tryConstruct(null, parent, generation) : null;
+    }
+
+    // Return the constructor registered for {@code type}, if it produces an
+    // instance of {@code base}.
+    private static @Nullable Resolution tryConstruct(@Nullable Class<?> base, Type type, int generation) {
+        long gtype = type.longValue();
+        var ctor = typeRegister.get(gtype);
+        if (ctor == null)
+            return null;
+
+        var cls = constructedClass(gtype, ctor);
+        if (base == null || base.isAssignableFrom(cls))
+            return new Resolution(ctor, cls, generation);
+
+        return null;
     }
 
-    // Register and return the constructor registered for {@code type}, if it
-    // produces an instance of {@code base}.
+    // Register the fallback constructor for this type
     private static @Nullable Function<MemorySegment, ? extends Proxy>
-    tryConstruct(@Nullable Class<?> base, Type type) {
-        var ctor = typeRegister.get(type);
-        if (base == null)
-            return ctor;
+    registerFallback(long gtype,
+                     @Nullable Function<MemorySegment, ? extends Proxy> fallback,
+                     @Nullable Class<?> cls) {
+        if (fallback != null) {
+            typeRegister.put(gtype, fallback);
+            if (cls != null)
+                typeClasses.put(gtype, cls);
+        }
+        return fallback;
+    }
 
-        if (ctor != null) {
-            if (base.isAssignableFrom(ctor.apply(MemorySegment.NULL).getClass())) {
-                typeRegister.put(type, ctor);
-                return ctor;
-            }
+    // Get the class of the instances that are created by the constructor that
+    // is registered for the GType. When it is unknown, an instance is created
+    // (once) to find out.
+    private static Class<?> constructedClass(long gtype, Function<MemorySegment, ? extends Proxy> ctor) {
+        var cls = typeClasses.get(gtype);
+        if (cls == null) {
+            cls = ctor.apply(MemorySegment.NULL).getClass();
+            typeClasses.put(gtype, cls);
         }
-        return null;
+        return cls;
+    }
+
+    // Get the class of the instances that are created by the fallback
+    // constructor. The result is cached per class of the fallback function
+    // (also for capturing lambdas, that create the same class every time),
+    // so the fallback constructor is called only once.
+    private static Class<?> fallbackClass(Function<MemorySegment, ? extends Proxy> fallback) {
+        var cls = fallbackClasses.get(fallback.getClass());
+        if (cls == null) {
+            cls = fallback.apply(MemorySegment.NULL).getClass();
+            fallbackClasses.put(fallback.getClass(), cls);
+        }
+        return cls;
+    }
+
+    /**
+     * Resolve and cache the constructors of all currently registered GTypes
+     * that are derived from the provided type, in one pass. Call this during
+     * application startup (for example with {@code GObject.getType()}) to
+     * avoid resolving the constructors of anonymous and private types later.
+     *
+     * @param root the root of the type hierarchy
+     */
+    public static void resolveHierarchy(Type root) {
+        getConstructor(root, null);
+        var children = GObjects.typeChildren(root);
+        if (children != null)
+            for (var child : children)
+                resolveHierarchy(child);
     }
 
     /**
@@ -173,20 +300,30 @@ public class TypeCache {
      * @return the contructor function
      */
     public static @Nullable Function<Integer, ?> getEnumConstructor(Type type) {
-        return enumTypeRegister.get(type);
+        return enumTypeRegister.get(type.longValue());
     }
 
     /**
      * Return the GType that was registered for this class. If no type was
      * registered yet, this method will try to register it, and then return
-     * the GType.
+     * the GType. The result is cached, so after the first call, this is a
+     * fast lookup.
      *
      * @param  cls a Java class
      * @return the cached GType
      */
     public static Type getType(Class<?> cls) {
         requireNonNull(cls);
+        var type = classToType.get(cls);
 
+        // Don't cache a failed registration
+        if (type == null)
+            classToType.remove(cls);
+
+        return type;
+    }
+
+    private static Type lookupOrRegister(Class<?> cls) {
         // Class must be a Proxy-derived class
         @SuppressWarnings("unchecked")
         var proxyClass = (Class<? extends Proxy>) cls;
@@ -235,7 +372,7 @@ public class TypeCache {
      * @return a constructor for a wrapper class in Java for the typeclass
      */
     public static @Nullable Function<MemorySegment, ? extends Proxy> getTypeClassConstructor(Type type) {
-        return typeClassRegister.get(type);
+        return typeClassRegister.get(type.longValue());
     }
 
     /**
@@ -252,10 +389,21 @@ public class TypeCache {
                                 @Nullable Function<MemorySegment, ? extends Proxy> typeClassCtor) {
         requireNonNull(cls);
         if (type != null) {
-            if (ctor != null)
-                typeRegister.put(type, ctor);
+            if (ctor != null) {
+                typeRegister.put(type.longValue(), ctor);
+
+                // For interfaces, the constructor creates an instance of an
+                // implementation class, so the class isn't recorded.
+                if (!cls.isInterface())
+                    typeClasses.put(type.longValue(), cls);
+
+                // The resolutions of the descendants of the type, and the
+                // types that implement it, may be outdated now. They are
+                // checked again when they are looked up.
+                generation.incrementAndGet();
+            }
             if (typeClassCtor != null)
-                typeClassRegister.put(type, typeClassCtor);
+                typeClassRegister.put(type.longValue(), typeClassCtor);
             classToTypeMap.put(cls, type);
         }
     }
@@ -274,7 +422,7 @@ public class TypeCache {
         requireNonNull(cls);
         if (type != null) {
             if (ctor != null)
-                enumTypeRegister.put(type, ctor);
+                enumTypeRegister.put(type.longValue(), ctor);
             classToTypeMap.put(cls, type);
         }
     }
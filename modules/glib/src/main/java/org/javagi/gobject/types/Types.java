@@ -32,6 +32,8 @@ import org.jspecify.annotations.Nullable;
 
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.function.Consumer;
@@ -459,7 +461,7 @@ public class Types {
      * @return {@code true} if {@code type} is fundamental
      */
     public static boolean IS_FUNDAMENTAL(Type type) {
-        return type.getValue() <= FUNDAMENTAL_MAX;
+        return type.longValue() <= FUNDAMENTAL_MAX;
     }
 
     /**
@@ -471,7 +473,7 @@ public class Types {
      * @return {@code true} if {@code type} is derived
      */
     public static boolean IS_DERIVED(Type type) {
-        return type.getValue() > FUNDAMENTAL_MAX;
+        return type.longValue() > FUNDAMENTAL_MAX;
     }
 
     /**
@@ -856,20 +858,20 @@ public class Types {
             return null;
         }
 
-        // Create a wrapper function that will run the constructor and catch
-        // exceptions
+        // Create a method handle for the constructor, and a wrapper function
+        // that will run it and catch exceptions
+        MethodHandle handle = Interop.unreflect(ctor)
+                .asType(MethodType.methodType(Object.class, MemorySegment.class));
         return (addr) -> {
             try {
-                return ctor.newInstance(addr);
-            } catch (InvocationTargetException ite) {
+                Object instance = handle.invokeExact(addr);
+                @SuppressWarnings("unchecked") // the constructor returns a T
+                T result = (T) instance;
+                return result;
+            } catch (Throwable t) {
                 GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
                         "Exception in constructor for class %s: %s\n",
-                        cls.getSimpleName(), ite.getTargetException().toString());
-                return null;
-            } catch (Exception e) {
-                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                        "Exception in constructor for class %s: %s\n",
-                        cls.getSimpleName(), e.toString());
+                        cls.getSimpleName(), unwrap(t).toString());
                 return null;
             }
         };
@@ -886,38 +888,63 @@ public class Types {
      *         found
      */
     public static <T extends TypeInstance> Consumer<T> getInstanceInit(Class<T> cls) {
-        Consumer<T> instanceInit = Types::defaultInstanceInit;
-        // Find instance initializer function
-        for (Method method : cls.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(InstanceInit.class)) {
-                // Create a wrapper function that calls the instance
-                // initializer and logs exceptions
-                instanceInit = instanceInit.andThen((inst) -> {
-                    try {
-                        method.invoke(inst);
-                    } catch (InvocationTargetException ite) {
-                        Throwable t = ite.getTargetException();
-                        if (t instanceof ExceptionInInitializerError eiie) {
-                            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                    "ExceptionInInitializerError in %s instance init: %s\n",
-                                    cls.getSimpleName(),
-                                    eiie.getCause().toString());
-                        } else {
-                            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                    "InvocationTargetException in %s instance init: %s\n",
-                                    cls.getSimpleName(),
-                                    ite.getTargetException().toString());
-                        }
-                    } catch (Exception e) {
+        // Find instance initializer functions, and create method handles
+        List<MethodHandle> handles = new ArrayList<>();
+        var descriptor = RegistrationDescriptor.of(cls);
+        if (descriptor != null) {
+            for (MethodHandle handle : descriptor.instanceInits()) {
+                // A static instance initializer ignores the instance
+                if (handle.type().parameterCount() == 0)
+                    handle = MethodHandles.dropArguments(handle, 0, TypeInstance.class);
+
+                handles.add(handle.asType(MethodType.methodType(void.class, TypeInstance.class)));
+            }
+        } else {
+            for (Method method : cls.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(InstanceInit.class)) {
+                    MethodHandle handle = Interop.unreflect(method);
+
+                    // A static instance initializer ignores the instance
+                    if (Modifier.isStatic(method.getModifiers()))
+                        handle = MethodHandles.dropArguments(handle, 0, TypeInstance.class);
+
+                    handles.add(handle.asType(MethodType.methodType(void.class, TypeInstance.class)));
+                }
+            }
+        }
+
+        if (handles.isEmpty())
+            return Types::defaultInstanceInit;
+
+        // Create a wrapper function that calls the instance initializers and
+        // logs exceptions
+        MethodHandle[] instanceInits = handles.toArray(MethodHandle[]::new);
+        return (inst) -> {
+            defaultInstanceInit(inst);
+            for (MethodHandle instanceInit : instanceInits) {
+                try {
+                    instanceInit.invokeExact((TypeInstance) inst);
+                } catch (Throwable t) {
+                    t = unwrap(t);
+                    if (t instanceof ExceptionInInitializerError eiie) {
+                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                                "ExceptionInInitializerError in %s instance init: %s\n",
+                                cls.getSimpleName(),
+                                eiie.getCause().toString());
+                    } else {
                         GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
                                 "Exception in %s instance init: %s\n",
                                 cls.getSimpleName(),
-                                e.toString());
+                                t.toString());
                     }
-                });
+                }
             }
-        }
-        return instanceInit;
+        };
+    }
+
+    // Unwrap the exception that was thrown by a reflective invocation
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof InvocationTargetException ite ? ite.getTargetException() : t;
     }
 
     // This is always executed for all new GObject instances defined in Java.
@@ -941,6 +968,26 @@ public class Types {
      */
     public static <T extends TypeInstance, TC extends TypeClass>
     @Nullable Consumer<TC> getClassInit(Class<T> cls) {
+        // Use the class initializer from the registration descriptor
+        var descriptor = RegistrationDescriptor.of(cls);
+        if (descriptor != null) {
+            MethodHandle classInit = descriptor.classInit();
+            if (classInit == null)
+                return null;
+
+            MethodHandle handle = classInit.asType(MethodType.methodType(void.class, TypeClass.class));
+            return (gclass) -> {
+                try {
+                    handle.invokeExact((TypeClass) gclass);
+                } catch (Throwable t) {
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "Exception in %s class init: %s\n",
+                            cls.getSimpleName(),
+                            t.toString());
+                }
+            };
+        }
+
         // Find class initializer function
         for (Method method : cls.getDeclaredMethods()) {
             if (method.isAnnotationPresent(ClassInit.class)) {
@@ -1373,10 +1420,7 @@ public class Types {
                     1 << constant.ordinal(), constant.name(), constant.name(), Arena.global());
         }
         var type = flagsRegisterStatic(name, flagsValues);
-        Function<Integer, EnumSet<T>> make = j -> Interop.intToEnumSet(enumClass, n -> {
-            int idx = Integer.numberOfTrailingZeros(n);
-            return constants[idx];
-        }, j);
+        Function<Integer, EnumSet<T>> make = j -> Interop.intToEnumSet(enumClass, j);
         TypeCache.registerEnum(enumClass, type, make);
         return type;
     }
@@ -29,7 +29,7 @@ import java.lang.ref.Cleaner;
 public record ArenaCloseAction(Arena arena) implements Runnable {
 
     // Cleaner used to close the arena
-    public static final Cleaner CLEANER = Cleaner.create();
+    public static final Cleaner CLEANER = Reclaimer.CLEANER;
 
     @Override
     public void run() {
@@ -19,41 +19,52 @@
 
 package org.javagi.interop;
 
+import org.jspecify.annotations.NullMarked;
+
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Keeps a list of open Arenas that will be closed in a DestroyNotify callback.
- * The DestroyNotify callback will know which Arena to close, based on the
- * hashcode that is passed in the user_data parameter.
+ * Keeps a registry of open Arenas that will be closed in a DestroyNotify
+ * callback. The DestroyNotify callback will know which Arena to close, based
+ * on the unique id that is passed in the user_data parameter.
+ * <p>
+ * Callback arenas that are created with {@link #ofCallback()} allocate their
+ * memory (including the upcall stub) in an automatic arena, that is only
+ * reachable from the callback arena until it is closed. After that, the
+ * garbage collector releases the memory. This avoids the expensive close
+ * operation of a shared arena, and the memory of every callback is released
+ * independently of other callbacks.
  */
+@NullMarked
 public class Arenas {
     /*
-     * We don't actually store arenas in the hashmap, but CompletableFutures.
-     *
-     * The purpose of the CF is to ensure the arena is only closed after the
-     * native function has returned. (Sometimes the DestroyNotify is called
-     * before that, for example when g_idle_add() runs a very short-lived
-     * callback function.) Because the native function and the DestroyNotify
-     * run in separate threads, we use a CF to communicate from the function’s
-     * thread that the DestroyNotify's thread is allowed to close the arena.
-     *
-     * This is why the hashmap doesn’t contain the arena, but a
-     * CompletableFuture. close_cb() retrieves the CF from the hashmap and
-     * queries its result. (This will block until the CF is completed.) Then it
-     * removes the hashmap entry and closes the arena.
+     * The arena must only be closed after the native function has returned.
+     * (Sometimes the DestroyNotify is called before that, for example when
+     * g_idle_add() runs a very short-lived callback function.) Because the
+     * native function and the DestroyNotify can run in separate threads, both
+     * set a flag in the registration. The thread that sets the second flag
+     * closes the arena.
      *
      * After the native method call has returned, readyToClose() is called.
-     * This will complete the CF, by passing it the arena, and close_cb() will
-     * not block on it anymore.
+     * The DestroyNotify callback runs close_cb().
      */
 
+    private static final int READY = 1;
+    private static final int DESTROYED = 2;
+
     // Contains all open callback arenas that are closed using DestroyNotify
-    private static final Map<Integer, CompletableFuture<Arena>> ARENAS = new HashMap<>();
+    private static final Map<Long, Registration> REGISTRY = new ConcurrentHashMap<>();
+
+    // Registrations of arenas that were not created with ofCallback()
+    private static final Map<Arena, Registration> OTHER_ARENAS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
 
     /**
      * The upcall stub for the DestroyNotify callback method
@@ -72,40 +83,104 @@ public class Arenas {
         }
     }
 
+    /*
+     * Tracks whether the native function has returned and whether the
+     * DestroyNotify callback has run.
+     */
+    private static final class Registration {
+        private final Arena arena;
+        private final AtomicInteger state = new AtomicInteger();
+        private volatile long id;
+
+        Registration(Arena arena) {
+            this.arena = arena;
+        }
+
+        void mark(int flag) {
+            int previous = state.getAndUpdate(s -> s | flag);
+            if ((previous | flag) == (READY | DESTROYED) && previous != (READY | DESTROYED)) {
+                REGISTRY.remove(id);
+                if (!(arena instanceof CallbackArena))
+                    OTHER_ARENAS.remove(arena);
+                arena.close();
+            }
+        }
+    }
+
+    /*
+     * A callback arena allocates from an automatic arena. After the callback
+     * arena is closed, it is removed from the registry, so the GC can release
+     * the memory when no segments refer to it anymore.
+     */
+    private static final class CallbackArena implements Arena {
+        private final Arena arena = Arena.ofAuto();
+        private final Registration registration = new Registration(this);
+        private volatile boolean closed;
+
+        @Override
+        public MemorySegment allocate(long byteSize, long byteAlignment) {
+            if (closed)
+                throw new IllegalStateException("Already closed");
+            return arena.allocate(byteSize, byteAlignment);
+        }
+
+        @Override
+        public MemorySegment.Scope scope() {
+            return arena.scope();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * Create an arena for a callback that will be closed with
+     * {@link #CLOSE_CB_SYM}. The memory is allocated in an automatic arena,
+     * that is released by the garbage collector after the callback arena is
+     * closed.
+     *
+     * @return the new callback arena
+     */
+    public static Arena ofCallback() {
+        return new CallbackArena();
+    }
+
     /**
      * This is called by native code when it runs the DestroyNotify callback.
      * It will close the accompanying Arena.
      *
-     * @param data pointer to the hashcode of the Arena to close
+     * @param data the id of the Arena to close
      */
     public static void close_cb(MemorySegment data) {
         if (MemorySegment.NULL.equals(data))
             return;
 
-        int hashCode = data.reinterpret(ValueLayout.JAVA_INT.byteSize())
-                           .get(ValueLayout.JAVA_INT, 0);
-        var future = ARENAS.get(hashCode);
-        if (future != null) {
-            future.thenAccept(arena -> {
-                ARENAS.remove(hashCode);
-                if (arena != null)
-                    arena.close();
-            });
-        }
+        Registration registration = REGISTRY.get(data.address());
+        if (registration != null)
+            registration.mark(DESTROYED);
     }
 
     /**
-     * This will add the Arena to the global static list of open arenas, and
-     * return a pointer to the hashcode of the Arena.
+     * This will add the Arena to the registry of open arenas, and return a
+     * pointer with the unique id of the Arena.
      *
      * @param  arena the Arena to cache
-     * @return a pointer to the hashcode of the Arena
+     * @return a pointer with the id of the Arena
      */
     public static MemorySegment cacheArena(Arena arena) {
-        int hashCode = arena.hashCode();
-        var future = new CompletableFuture<Arena>();
-        ARENAS.put(hashCode, future);
-        return arena.allocateFrom(ValueLayout.JAVA_INT, hashCode);
+        Registration registration;
+        if (arena instanceof CallbackArena callbackArena) {
+            registration = callbackArena.registration;
+        } else {
+            registration = new Registration(arena);
+            OTHER_ARENAS.put(arena, registration);
+        }
+        long id = NEXT_ID.getAndIncrement();
+        registration.id = id;
+        REGISTRY.put(id, registration);
+        return MemorySegment.ofAddress(id);
     }
 
     /**
@@ -114,8 +189,19 @@ public class Arenas {
      * @param arena the cached Arena
      */
     public static void readyToClose(Arena arena) {
-        CompletableFuture<Arena> future = ARENAS.get(arena.hashCode());
-        if (future != null)
-            future.complete(arena);
+        Registration registration = arena instanceof CallbackArena callbackArena
+                ? callbackArena.registration
+                : OTHER_ARENAS.get(arena);
+        if (registration != null)
+            registration.mark(READY);
+    }
+
+    /**
+     * Get the number of cached arenas that have not been closed yet.
+     *
+     * @return the number of open arenas in the registry
+     */
+    public static int size() {
+        return REGISTRY.size();
     }
 }
@@ -0,0 +1,133 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.javagi.interop;
+
+import org.gnome.glib.GLib;
+import org.gnome.glib.LogLevelFlags;
+import org.javagi.base.Enumeration;
+import org.javagi.gobject.annotations.Flags;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.javagi.base.Constants.LOG_DOMAIN;
+
+/**
+ * Precomputed conversion table between the constants of an enum class and
+ * their integer values. The table is created once per enum class, and cached
+ * in a {@link ClassValue}.
+ * <p>
+ * For enums that implement {@link Enumeration}, the value of a constant is
+ * its {@link Enumeration#getValue() value}. For other enums with a
+ * {@link Flags} annotation, the value is {@code 1 << ordinal}, and otherwise
+ * it is the ordinal itself.
+ *
+ * @param <T> the enum class
+ */
+@NullMarked
+final class EnumTable<T extends Enum<T>> {
+
+    private static final ClassValue<EnumTable<?>> TABLES = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"}) // only called for enum classes
+        protected EnumTable<?> computeValue(Class<?> type) {
+            return new EnumTable(type);
+        }
+    };
+
+    private final Class<T> cls;
+
+    // Bit position -> the constant with that (single-bit) value
+    private final @Nullable Object[] bits = new Object[Integer.SIZE];
+
+    // Ordinal -> the value of the constant
+    private final int[] masks;
+
+    private EnumTable(Class<T> cls) {
+        this.cls = cls;
+        T[] constants = cls.getEnumConstants();
+        boolean isFlags = cls.isAnnotationPresent(Flags.class);
+        masks = new int[constants.length];
+
+        for (T constant : constants) {
+            int ordinal = constant.ordinal();
+            int mask = constant instanceof Enumeration e ? e.getValue()
+                    : isFlags ? 1 << ordinal
+                    : ordinal;
+            masks[ordinal] = mask;
+
+            // Only single-bit values are read back from a bitfield
+            if (Integer.bitCount(mask) == 1) {
+                int position = Integer.numberOfTrailingZeros(mask);
+                if (bits[position] == null)
+                    bits[position] = constant;
+            }
+        }
+    }
+
+    /**
+     * Get the conversion table of the provided enum class.
+     *
+     * @param  cls the enum class
+     * @param  <T> the enum class
+     * @return the conversion table
+     */
+    @SuppressWarnings("unchecked") // the table was created for class T
+    static <T extends Enum<T>> EnumTable<T> of(Class<T> cls) {
+        return (EnumTable<T>) TABLES.get(cls);
+    }
+
+    /**
+     * Create an EnumSet with the constants of the bits that are set in the
+     * bitfield. Undefined bits are logged and ignored.
+     *
+     * @param  bitfield the bitfield
+     * @return a new EnumSet
+     */
+    @SuppressWarnings("unchecked") // the bits array only contains constants of class T
+    EnumSet<T> toEnumSet(int bitfield) {
+        EnumSet<T> set = EnumSet.noneOf(cls);
+        for (int n = bitfield; n != 0; n &= n - 1) {
+            Object constant = bits[Integer.numberOfTrailingZeros(n)];
+            if (constant != null)
+                set.add((T) constant);
+            else
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_DEBUG,
+                        "Unexpected flag %d in enum %s\n", Integer.lowestOneBit(n), cls.getName());
+        }
+        return set;
+    }
+
+    /**
+     * Combine the values of the constants in the set into one bitfield.
+     *
+     * @param  set the set of constants
+     * @return the bitfield
+     */
+    int toInt(Set<T> set) {
+        int bitfield = 0;
+        for (T element : set)
+            bitfield |= masks[element.ordinal()];
+        return bitfield;
+    }
+}
@@ -0,0 +1,72 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of native UTF-8 strings that are never freed.
+ * <p>
+ * Signal names, property names and other constant strings are passed to
+ * native functions over and over again. Instead of allocating and encoding
+ * a new native string every time, {@link #get(String)} returns the same
+ * native string for the same Java string.
+ * <p>
+ * Interned strings are allocated in the global arena, and cannot be removed
+ * from the cache. Only use this for a limited set of strings that are used
+ * frequently, such as action names or CSS classes, and not for arbitrary
+ * user input. The returned memory segments must not be modified.
+ */
+@NullMarked
+public final class InternedStrings {
+
+    private static final Map<String, MemorySegment> STRINGS = new ConcurrentHashMap<>();
+
+    private InternedStrings() {
+    }
+
+    /**
+     * Get the interned native string for a Java string. The native string is
+     * allocated when it is requested for the first time.
+     *
+     * @param  string the Java string
+     * @return the native (NUL-terminated, UTF-8 encoded) string
+     */
+    public static MemorySegment get(String string) {
+        MemorySegment segment = STRINGS.get(string);
+        if (segment != null)
+            return segment;
+        return STRINGS.computeIfAbsent(string, Arena.global()::allocateFrom);
+    }
+
+    /**
+     * Get the number of interned strings.
+     *
+     * @return the number of strings in the cache
+     */
+    public static int size() {
+        return STRINGS.size();
+    }
+}
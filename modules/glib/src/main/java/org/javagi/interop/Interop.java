@@ -24,20 +24,24 @@ import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
 import java.lang.foreign.*;
 import java.lang.invoke.*;
-import java.lang.ref.Cleaner;
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import org.gnome.glib.*;
 import org.javagi.base.*;
 
 import org.javagi.base.Enumeration;
-import org.javagi.gobject.annotations.Flags;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
@@ -64,11 +68,28 @@ public class Interop {
             .canonicalLayouts().get("long").equals(JAVA_INT);
 
     private final static Linker LINKER = Linker.nativeLinker();
-    private final static Cleaner CLEANER = Cleaner.create();
     private final static FunctionDescriptor GET_TYPE_FDESC = FunctionDescriptor.of(JAVA_LONG);
     private final static AtomicInteger DUMMY_MH_COUNT = new AtomicInteger();
 
-    private static SymbolLookup symbolLookup = LINKER.defaultLookup();
+    // Linked downcall handles for function pointers, see functionPointerHandle()
+    private final static Map<FunctionPointerKey, MethodHandle> FUNCTION_POINTER_HANDLES =
+            new ConcurrentHashMap<>();
+
+    // Reflective invocation, for constructors and methods that are not
+    // accessible with a method handle, see unreflect()
+    private static final MethodHandle CONSTRUCTOR_NEW_INSTANCE;
+    private static final MethodHandle METHOD_INVOKE;
+    static {
+        try {
+            var lookup = MethodHandles.publicLookup();
+            CONSTRUCTOR_NEW_INSTANCE = lookup.findVirtual(Constructor.class, "newInstance",
+                    MethodType.methodType(Object.class, Object[].class));
+            METHOD_INVOKE = lookup.findVirtual(Method.class, "invoke",
+                    MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
 
     public static boolean longAsInt() {
         return LONG_AS_INT;
@@ -76,13 +97,13 @@ public class Interop {
 
     /**
      * Load the specified library using
-     * {@link SymbolLookup#libraryLookup(String, Arena)}.
+     * {@link SymbolLookup#libraryLookup(String, Arena)}, and add its symbols
+     * to the {@link SymbolTable}.
      *
      * @param name the name of the library
      */
-    public static synchronized void loadLibrary(String name) {
-        symbolLookup = LibLoad.loadLibrary(name, Arena.global())
-                .or(symbolLookup);
+    public static void loadLibrary(String name) {
+        SymbolTable.loadLibrary(name);
     }
 
     // Create a method handle for a runtime-generated dummy method that will throw an
@@ -138,12 +159,32 @@ public class Interop {
      * @return the newly created MethodHandle
      */
     public static MethodHandle downcallHandle(String name, FunctionDescriptor fdesc, boolean variadic) {
-        return symbolLookup.find(name)
+        return SymbolTable.find(name)
                 .map(addr -> variadic ? VarargsInvoker.create(addr, fdesc)
                                       : LINKER.downcallHandle(addr, fdesc))
                 .orElseGet(() -> generateFallbackMH(name, fdesc));
     }
 
+    /**
+     * Create a method handle that is used to call the native function with
+     * the provided name and function descriptor. Unlike
+     * {@link #downcallHandle(String, FunctionDescriptor, boolean)}, the native
+     * function is not looked up and linked until the method handle is invoked
+     * for the first time.
+     *
+     * @param  name     name of the native function
+     * @param  fdesc    function descriptor of the native function
+     * @param  variadic whether the function has varargs
+     * @return the newly created MethodHandle
+     */
+    public static MethodHandle lazyDowncallHandle(String name, FunctionDescriptor fdesc, boolean variadic) {
+        // Variadic functions are linked when they are invoked with a new
+        // combination of argument types (see VarargsInvoker), so they are
+        // already linked lazily.
+        return variadic ? downcallHandle(name, fdesc, true)
+                        : LazyDowncallHandle.create(name, fdesc);
+    }
+
     /**
      * Create a method handle that is used to call the native function at the
      * provided memory address.
@@ -160,6 +201,33 @@ public class Interop {
         return LINKER.downcallHandle(symbol, fdesc, options);
     }
 
+    /**
+     * Get a method handle that is used to call the native function at the
+     * provided memory address. Unlike
+     * {@link #downcallHandle(MemorySegment, FunctionDescriptor, Linker.Option...)},
+     * the handle is only linked once for every combination of function address
+     * and function descriptor. This is meant for function pointers that are
+     * called repeatedly, such as the parent implementation of a virtual method.
+     *
+     * @param  symbol memory address of the native function
+     * @param  fdesc  function descriptor of the native function
+     * @return the (cached) MethodHandle
+     * @throws NullPointerException when {@code symbol} is null
+     */
+    public static MethodHandle functionPointerHandle(MemorySegment symbol, FunctionDescriptor fdesc) {
+        requireNonNull(symbol);
+        var key = new FunctionPointerKey(symbol.address(), fdesc);
+        MethodHandle handle = FUNCTION_POINTER_HANDLES.get(key);
+        if (handle != null)
+            return handle;
+        return FUNCTION_POINTER_HANDLES.computeIfAbsent(key,
+                _ -> LINKER.downcallHandle(symbol, fdesc));
+    }
+
+    // Key for the cache of function pointer downcall handles
+    private record FunctionPointerKey(long address, FunctionDescriptor fdesc) {
+    }
+
     /**
      * Create a method handle for the {@code upcall} method in the provided
      * class.
@@ -183,13 +251,71 @@ public class Interop {
      */
     public static MethodHandle upcallHandle(
             MethodHandles.Lookup lookup, Class<?> cls, String name, FunctionDescriptor descriptor) {
+        return upcallHandle(lookup, cls, name, descriptor.toMethodType());
+    }
+
+    /**
+     * Create a method handle for a method in the provided class, with
+     * parameters that are bound before an upcall stub is created.
+     *
+     * @param  cls  the callback class
+     * @param  name the name of the callback method
+     * @param  type the type of the callback method
+     * @return a method handle to use when creating an upcall stub
+     */
+    public static MethodHandle upcallHandle(
+            MethodHandles.Lookup lookup, Class<?> cls, String name, MethodType type) {
         try {
-            return lookup.findVirtual(cls, name, descriptor.toMethodType());
+            return lookup.findVirtual(cls, name, type);
         } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Create a method handle for a Java constructor or method, for example a
+     * method that overrides a virtual method, or a property accessor. The
+     * method handle is invoked directly, so the method is not called with
+     * reflection.
+     * <p>
+     * The module of the declaring class is added to the modules that the
+     * java-gi module reads, because that is required to create a method
+     * handle for it. When the constructor or method is still not accessible,
+     * the returned method handle invokes it with reflection, so the
+     * {@link IllegalAccessException} is thrown when it is invoked.
+     * Exceptions that are thrown by a reflective invocation are wrapped in
+     * an {@link java.lang.reflect.InvocationTargetException}.
+     *
+     * @param  executable the constructor or method. Protected methods must
+     *                    have been made accessible.
+     * @return a method handle for the constructor or method
+     */
+    public static MethodHandle unreflect(Executable executable) {
+        Interop.class.getModule().addReads(executable.getDeclaringClass().getModule());
+
+        var lookup = MethodHandles.lookup();
+        try {
+            if (executable instanceof Constructor<?> ctor)
+                return lookup.unreflectConstructor(ctor);
+            return lookup.unreflect((Method) executable);
+        } catch (IllegalAccessException _) {
+            Class<?>[] params = executable.getParameterTypes();
+            if (executable instanceof Constructor<?>)
+                return CONSTRUCTOR_NEW_INSTANCE.bindTo(executable)
+                        .asCollector(Object[].class, params.length)
+                        .asType(MethodType.methodType(executable.getDeclaringClass(), params));
+
+            Method method = (Method) executable;
+            MethodHandle invoke = METHOD_INVOKE.bindTo(method);
+            MethodType type = MethodType.methodType(method.getReturnType(), params);
+            if (Modifier.isStatic(method.getModifiers()))
+                invoke = MethodHandles.insertArguments(invoke, 0, (Object) null);
+            else
+                type = type.insertParameterTypes(0, method.getDeclaringClass());
+            return invoke.asCollector(Object[].class, params.length).asType(type);
+        }
+    }
+
     /**
      * Create a SegmentAllocator that uses {@code malloc()} to allocate memory.
      * <p>
@@ -230,7 +356,7 @@ public class Interop {
      * @return the arena (for method chaining)
      */
     public static Arena attachArena(Arena arena, Object instance) {
-        CLEANER.register(instance, arena::close);
+        Reclaimer.CLEANER.register(instance, arena::close);
         return arena;
     }
 
@@ -674,7 +800,7 @@ public class Interop {
             // proxy instance
             case Proxy p     -> requireNonNullElse(p.handle(), NULL);
             // gtype
-            case Type t      -> MemorySegment.ofAddress(t.getValue()); // GTYPE_TO_POINTER()
+            case Type t      -> MemorySegment.ofAddress(t.longValue()); // GTYPE_TO_POINTER()
             // alias
             case Alias<?> a  -> getAddress(a.getValue(), alloc);
             // enum
@@ -1214,6 +1340,215 @@ public class Interop {
         return getShortArray(address, idx, transfer);
     }
 
+    /**
+     * Copy an array of booleans with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     * <p>
+     * The array is read from native memory as an array of integers with value
+     * 1 or 0, and converted to booleans with 1 = true and 0 = false.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getBooleanArray(MemorySegment address, long length,
+                                      TransferOwnership transfer, boolean[] destination) {
+        if (NULL.equals(address))
+            return -1;
+
+        try {
+            Objects.checkFromIndexSize(0, length, destination.length);
+            MemorySegment array = address.reinterpret(length * JAVA_INT.byteSize());
+            for (int i = 0; i < length; i++)
+                destination[i] = array.getAtIndex(JAVA_INT, i) != 0;
+            return (int) length;
+        } finally {
+            if (transfer != NONE)
+                GLib.free(address);
+        }
+    }
+
+    /**
+     * Copy an array of bytes with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getByteArray(MemorySegment address, long length,
+                                   TransferOwnership transfer, byte[] destination) {
+        return copyToArray(address, length, transfer, JAVA_BYTE, destination, destination.length);
+    }
+
+    /**
+     * Copy an array of chars with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getCharacterArray(MemorySegment address, long length,
+                                        TransferOwnership transfer, char[] destination) {
+        return copyToArray(address, length, transfer, JAVA_CHAR, destination, destination.length);
+    }
+
+    /**
+     * Copy an array of doubles with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getDoubleArray(MemorySegment address, long length,
+                                     TransferOwnership transfer, double[] destination) {
+        return copyToArray(address, length, transfer, JAVA_DOUBLE, destination, destination.length);
+    }
+
+    /**
+     * Copy an array of floats with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getFloatArray(MemorySegment address, long length,
+                                    TransferOwnership transfer, float[] destination) {
+        return copyToArray(address, length, transfer, JAVA_FLOAT, destination, destination.length);
+    }
+
+    /**
+     * Copy an array of integers with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getIntegerArray(MemorySegment address, long length,
+                                      TransferOwnership transfer, int[] destination) {
+        return copyToArray(address, length, transfer, JAVA_INT, destination, destination.length);
+    }
+
+    /**
+     * Copy an array of longs with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getLongArray(MemorySegment address, long length,
+                                   TransferOwnership transfer, long[] destination) {
+        return copyToArray(address, length, transfer, JAVA_LONG, destination, destination.length);
+    }
+
+    /**
+     * Copy an array of shorts with the requested length from native memory
+     * into an existing Java array, without allocating a new array.
+     *
+     * @param  address     address of the memory segment
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the array to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than {@code length}
+     */
+    public static int getShortArray(MemorySegment address, long length,
+                                    TransferOwnership transfer, short[] destination) {
+        return copyToArray(address, length, transfer, JAVA_SHORT, destination, destination.length);
+    }
+
+    /**
+     * Copy an array of values with the requested length and element layout
+     * from native memory into an existing memory segment, for example a slice
+     * of a larger (native or heap) buffer.
+     *
+     * @param  address     address of the memory segment
+     * @param  layout      the layout of the array elements
+     * @param  length      length of the array
+     * @param  transfer    ownership transfer
+     * @param  destination the memory segment to copy the elements into
+     * @return the number of copied elements, or -1 when {@code address} is
+     *         {@code NULL}
+     * @throws IndexOutOfBoundsException when {@code destination} is smaller
+     *                                   than the array
+     */
+    public static long copyArray(MemorySegment address, ValueLayout layout, long length,
+                                 TransferOwnership transfer, MemorySegment destination) {
+        if (NULL.equals(address))
+            return -1;
+
+        try {
+            long byteSize = length * layout.byteSize();
+            MemorySegment.copy(address.reinterpret(byteSize), 0, destination, 0, byteSize);
+            return length;
+        } finally {
+            if (transfer != NONE)
+                GLib.free(address);
+        }
+    }
+
+    /*
+     * Bulk copy a native array into a primitive Java array, and free the
+     * native array when ownership is transferred.
+     */
+    private static int copyToArray(MemorySegment address, long length, TransferOwnership transfer,
+                                   ValueLayout layout, Object destination, int destinationLength) {
+        if (NULL.equals(address))
+            return -1;
+
+        try {
+            Objects.checkFromIndexSize(0, length, destinationLength);
+            MemorySegment.copy(address.reinterpret(length * layout.byteSize()), layout, 0,
+                    destination, 0, (int) length);
+            return (int) length;
+        } finally {
+            if (transfer != NONE)
+                GLib.free(address);
+        }
+    }
+
     /**
      * Read a {@code NULL}-terminated array of memory addresses from native
      * memory, create a Proxy instance for each address, and return an array of
@@ -1530,8 +1865,8 @@ public class Interop {
     }
 
     /**
-     * Convert a boolean[] array into an int[] array, and calls
-     * {@link #allocate(int[], boolean, SegmentAllocator)}.
+     * Allocate and initialize an (optionally {@code NULL}-terminated) array of
+     * integers from a boolean[] array.
      * Each boolean value "true" is converted 1, boolean value "false" to 0.
      *
      * @param  array          array of booleans
@@ -1544,12 +1879,28 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        int[] intArray = new int[array.length];
-        for (int i = 0; i < array.length; i++) {
-            intArray[i] = array[i] ? 1 : 0;
-        }
+        MemorySegment segment = alloc.allocate(JAVA_INT, zeroTerminated ? array.length + 1 : array.length);
+        for (int i = 0; i < array.length; i++)
+            segment.setAtIndex(JAVA_INT, i, array[i] ? 1 : 0);
+        if (zeroTerminated)
+            segment.setAtIndex(JAVA_INT, array.length, 0);
 
-        return allocate(intArray, zeroTerminated, alloc);
+        return segment;
+    }
+
+    /*
+     * Allocate a native array and bulk copy the elements of a primitive Java
+     * array into it. The terminating zero is written directly into the native
+     * array, so the Java array doesn't have to be copied first.
+     */
+    private static MemorySegment allocateArray(Object array, int length, ValueLayout layout,
+                                               boolean zeroTerminated, SegmentAllocator alloc) {
+        MemorySegment segment = alloc.allocate(layout, zeroTerminated ? length + 1 : length);
+        MemorySegment.copy(array, 0, segment, layout, 0, length);
+        if (zeroTerminated)
+            segment.asSlice(length * layout.byteSize()).fill((byte) 0);
+
+        return segment;
     }
 
     /**
@@ -1566,11 +1917,7 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        byte[] copy = zeroTerminated ?
-                Arrays.copyOf(array, array.length + 1)
-                : array;
-
-        return alloc.allocateFrom(JAVA_BYTE, copy);
+        return allocateArray(array, array.length, JAVA_BYTE, zeroTerminated, alloc);
     }
 
     /**
@@ -1587,8 +1934,7 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        char[] copy = zeroTerminated ? Arrays.copyOf(array, array.length + 1) : array;
-        return alloc.allocateFrom(JAVA_CHAR, copy);
+        return allocateArray(array, array.length, JAVA_CHAR, zeroTerminated, alloc);
     }
 
     /**
@@ -1605,8 +1951,7 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        double[] copy = zeroTerminated ? Arrays.copyOf(array, array.length + 1) : array;
-        return alloc.allocateFrom(JAVA_DOUBLE, copy);
+        return allocateArray(array, array.length, JAVA_DOUBLE, zeroTerminated, alloc);
     }
 
     /**
@@ -1623,8 +1968,7 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        float[] copy = zeroTerminated ? Arrays.copyOf(array, array.length + 1) : array;
-        return alloc.allocateFrom(JAVA_FLOAT, copy);
+        return allocateArray(array, array.length, JAVA_FLOAT, zeroTerminated, alloc);
     }
 
     /**
@@ -1641,8 +1985,7 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        int[] copy = zeroTerminated ? Arrays.copyOf(array, array.length + 1) : array;
-        return alloc.allocateFrom(JAVA_INT, copy);
+        return allocateArray(array, array.length, JAVA_INT, zeroTerminated, alloc);
     }
 
     /**
@@ -1735,8 +2078,7 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        long[] copy = zeroTerminated ? Arrays.copyOf(array, array.length + 1) : array;
-        return alloc.allocateFrom(JAVA_LONG, copy);
+        return allocateArray(array, array.length, JAVA_LONG, zeroTerminated, alloc);
     }
 
     /**
@@ -1753,8 +2095,7 @@ public class Interop {
         if (array == null)
             return NULL;
 
-        short[] copy = zeroTerminated ? Arrays.copyOf(array, array.length + 1) : array;
-        return alloc.allocateFrom(JAVA_SHORT, copy);
+        return allocateArray(array, array.length, JAVA_SHORT, zeroTerminated, alloc);
     }
 
     /**
@@ -1853,14 +2194,33 @@ public class Interop {
     /**
      * Create an EnumSet of class `cls` from the provided bitfield.
      * Undefined flags are logged (with level
-     * {@link LogLevelFlags#LEVEL_WARNING}) and ignored.
+     * {@link LogLevelFlags#LEVEL_DEBUG}) and ignored.
+     * <p>
+     * The bits are converted with a table that is created once for every
+     * enum class.
+     *
+     * @param  <T>      an enum implementing the Java-GI Enumeration interface
+     * @param  cls      the class of the enum
+     * @param  bitfield the integer containing the bitfield
+     * @return an EnumSet containing the enum values as set in the bitfield
+     */
+    public static <T extends Enum<T>> EnumSet<T> intToEnumSet(Class<T> cls, int bitfield) {
+        return EnumTable.of(cls).toEnumSet(bitfield);
+    }
+
+    /**
+     * Create an EnumSet of class `cls` from the provided bitfield.
+     * Undefined flags are logged (with level
+     * {@link LogLevelFlags#LEVEL_DEBUG}) and ignored.
      *
      * @param  <T>      an enum implementing the Java-GI Enumeration interface
      * @param  cls      the class of the enum
      * @param  make     function that will construct an enum from one flag value
      * @param  bitfield the integer containing the bitfield
      * @return an EnumSet containing the enum values as set in the bitfield
+     * @deprecated use {@link #intToEnumSet(Class, int)}
      */
+    @Deprecated
     public static <T extends Enum<T>> EnumSet<T> intToEnumSet(
             Class<T> cls, Function<Integer, T> make, int bitfield) {
         int n = bitfield;
@@ -1893,25 +2253,7 @@ public class Interop {
         if (set == null || set.isEmpty())
             return 0;
 
-        @SuppressWarnings("unchecked") // class of element of Set<T> is a Class<T>
-        var cls = (Class<T>) set.iterator().next().getClass();
-        T[] constants = cls.getEnumConstants();
-        boolean isFlags = cls.isAnnotationPresent(Flags.class);
-        int bitfield = 0;
-
-        for (T element : set) {
-            if (element instanceof Enumeration e) {
-                bitfield |= e.getValue();
-            } else {
-                for (int n = 0; n < constants.length; n++) {
-                    if (constants[n].equals(element)) {
-                        bitfield |= (isFlags ? (1 << n) : n);
-                        break;
-                    }
-                }
-            }
-        }
-        return bitfield;
+        return EnumTable.of(set.iterator().next().getDeclaringClass()).toInt(set);
     }
 
     /**
@@ -1971,6 +2313,68 @@ public class Interop {
         }
     }
 
+    /**
+     * Create a GBytes that refers to the contents of a native memory segment,
+     * without copying it. The GBytes is created with
+     * {@code g_bytes_new_with_free_func}, and the memory segment is kept
+     * reachable until the GBytes is freed, so memory that is allocated with
+     * an automatic arena is not released before that. An arena that is
+     * closed explicitly must outlive the GBytes. The contents of a heap
+     * segment are copied with {@code g_bytes_new}.
+     *
+     * @param  data the memory segment
+     * @return the GBytes
+     */
+    public static MemorySegment toGBytes(@Nullable MemorySegment data) {
+        try {
+            if (data == null)
+                return (MemorySegment) NativeHandles.g_bytes_new.invokeExact(NULL, 0L);
+
+            if (!data.isNative()) {
+                try (var arena = Arena.ofConfined()) {
+                    var copy = arena.allocate(data.byteSize()).copyFrom(data);
+                    return (MemorySegment) NativeHandles.g_bytes_new.invokeExact(copy, data.byteSize());
+                }
+            }
+
+            return (MemorySegment) NativeHandles.g_bytes_new_with_free_func.invokeExact(
+                    data, data.byteSize(), SegmentBytes.FREE_FUNC_SYM, SegmentBytes.keepAlive(data));
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
+        }
+    }
+
+    /**
+     * Create a read-only view of the contents of a GBytes, without copying
+     * the data. The GBytes is referenced until the returned memory segment is
+     * garbage-collected.
+     *
+     * @param  address the memory address of the GBytes
+     * @return a read-only memory segment with the contents of the GBytes, or
+     *         {@code null} when the address is {@code NULL}
+     */
+    public static @Nullable MemorySegment fromGBytesSegment(MemorySegment address) {
+        if (NULL.equals(address))
+            return null;
+
+        try (var arena = Arena.ofConfined()) {
+            MemorySegment sizePointer = arena.allocate(JAVA_LONG);
+            sizePointer.set(JAVA_LONG, 0L, 0L);
+            MemorySegment data;
+            MemorySegment bytes;
+            try {
+                data = (MemorySegment) NativeHandles.g_bytes_get_data.invokeExact(address, sizePointer);
+                bytes = (MemorySegment) NativeHandles.g_bytes_ref.invokeExact(address);
+            } catch (Throwable _err) {
+                throw new AssertionError(_err);
+            }
+            long size = sizePointer.get(JAVA_LONG, 0);
+            return data.reinterpret(size, Arena.ofAuto(),
+                            _ -> Reclaimer.free(bytes, NativeHandles.g_bytes_unref))
+                       .asReadOnly();
+        }
+    }
+
     /**
      * Free a GBytes with {@code g_bytes_unref()}
      *
@@ -2148,6 +2552,37 @@ public class Interop {
         return (short) 0;
     }
 
+    /*
+     * Keeps memory segments that are used by a GBytes reachable, until the
+     * free-function of the GBytes is called.
+     */
+    private static class SegmentBytes {
+        private static final Map<Long, MemorySegment> SEGMENTS = new ConcurrentHashMap<>();
+        private static final AtomicLong NEXT_KEY = new AtomicLong(1);
+        private static final MemorySegment FREE_FUNC_SYM;
+
+        static {
+            try {
+                FunctionDescriptor _fdesc = FunctionDescriptor.ofVoid(ADDRESS);
+                MethodHandle _handle = MethodHandles.lookup().findStatic(
+                        SegmentBytes.class, "release", _fdesc.toMethodType());
+                FREE_FUNC_SYM = Linker.nativeLinker().upcallStub(_handle, _fdesc, Arena.global());
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new InteropException(e);
+            }
+        }
+
+        static MemorySegment keepAlive(MemorySegment segment) {
+            long key = NEXT_KEY.getAndIncrement();
+            SEGMENTS.put(key, segment);
+            return MemorySegment.ofAddress(key);
+        }
+
+        static void release(MemorySegment userData) {
+            SEGMENTS.remove(userData.address());
+        }
+    }
+
     private static class NativeHandles {
         static {
             GLib.javagi$ensureInitialized();
@@ -2158,6 +2593,16 @@ public class Interop {
                 FunctionDescriptor.of(ADDRESS, ADDRESS,JAVA_LONG),
                 false);
 
+        private static final MethodHandle g_bytes_new_with_free_func = downcallHandle(
+                "g_bytes_new_with_free_func",
+                FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG, ADDRESS, ADDRESS),
+                false);
+
+        private static final MethodHandle g_bytes_ref = downcallHandle(
+                "g_bytes_ref",
+                FunctionDescriptor.of(ADDRESS, ADDRESS),
+                false);
+
         private static final MethodHandle g_bytes_get_data = downcallHandle(
                 "g_bytes_get_data",
                 FunctionDescriptor.of(ADDRESS, ADDRESS, ADDRESS),
@@ -0,0 +1,115 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.GroupLayout;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+
+/**
+ * A call site for a native function that is linked on first use.
+ * <p>
+ * The initial target of the call site looks up and links the native function,
+ * replaces the target with the linked downcall handle, and then invokes it.
+ * The {@link #dynamicInvoker()} of the call site is a constant method handle,
+ * so after the first call, the JIT compiler can inline the linked downcall
+ * handle just like a regular static final downcall handle.
+ */
+@NullMarked
+final class LazyDowncallHandle extends MutableCallSite {
+
+    private static final MethodHandle LINK_AND_INVOKE;
+    static {
+        try {
+            LINK_AND_INVOKE = MethodHandles.lookup().findVirtual(LazyDowncallHandle.class, "linkAndInvoke",
+                    MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new InteropException(e);
+        }
+    }
+
+    private final String name;
+    private final FunctionDescriptor fdesc;
+    private @Nullable MethodHandle linked;
+
+    private LazyDowncallHandle(String name, FunctionDescriptor fdesc) {
+        super(methodType(fdesc));
+        this.name = name;
+        this.fdesc = fdesc;
+        setTarget(LINK_AND_INVOKE.bindTo(this)
+                .asCollector(Object[].class, type().parameterCount())
+                .asType(type()));
+    }
+
+    /**
+     * Create a method handle for the native function with the provided name
+     * and function descriptor, that will be linked when it is invoked for the
+     * first time.
+     *
+     * @param  name  name of the native function
+     * @param  fdesc function descriptor of the native function
+     * @return the method handle
+     */
+    static MethodHandle create(String name, FunctionDescriptor fdesc) {
+        return new LazyDowncallHandle(name, fdesc).dynamicInvoker();
+    }
+
+    /*
+     * The type of the downcall handle, as created by the native linker. When
+     * a struct is returned by value, the downcall handle has an additional
+     * leading SegmentAllocator parameter.
+     */
+    private static MethodType methodType(FunctionDescriptor fdesc) {
+        MethodType type = fdesc.toMethodType();
+        if (fdesc.returnLayout().orElse(null) instanceof GroupLayout)
+            type = type.insertParameterTypes(0, SegmentAllocator.class);
+        return type;
+    }
+
+    /*
+     * Initial target of the call site: link the native function, and invoke it.
+     */
+    @SuppressWarnings("unused")
+    private Object linkAndInvoke(Object[] args) throws Throwable {
+        return link().invokeWithArguments(args);
+    }
+
+    private synchronized MethodHandle link() {
+        if (linked == null) {
+            MethodHandle handle = Interop.downcallHandle(name, fdesc, false);
+
+            // The fallback handle for a function that was not found, does
+            // not have the leading SegmentAllocator parameter.
+            if (handle.type().parameterCount() < type().parameterCount())
+                handle = MethodHandles.dropArguments(handle, 0, SegmentAllocator.class);
+
+            linked = handle;
+            setTarget(handle);
+        }
+        return linked;
+    }
+}
@@ -143,32 +143,59 @@ public class LibLoad {
         return Map.copyOf(dependencyMap);
     }
 
+    // The loaded libraries. The lookups don't include the dependencies.
     private static final Map<String, SymbolLookup> loadedLibraries = new HashMap<>();
 
     /**
      * Load the native library with the provided name.
      *
      * @param name the name of the library
+     * @return a lookup for the symbols in the library and its dependencies
      */
-    public static SymbolLookup loadLibrary(String name, Arena arena) {
-        SymbolLookup lookup = loadedLibraries.get(name);
-        if (lookup != null) return lookup;
+    public static synchronized SymbolLookup loadLibrary(String name, Arena arena) {
+        SymbolLookup result = null;
+        for (SymbolLookup lookup : loadLibraryWithDependencies(name, arena).values())
+            result = result == null ? lookup : result.or(lookup);
+        return Objects.requireNonNull(result);
+    }
 
-        Set<String> dependencies = additionalDependencies.get(name);
-        Set<SymbolLookup> loadedDependencies = new HashSet<>();
-        if (dependencies != null) {
-            for (String dependency : dependencies) {
-                loadedDependencies.add(loadLibrary(dependency, arena));
+    /**
+     * Load the native library with the provided name, and its dependencies.
+     * The dependencies are loaded first.
+     *
+     * @param name the name of the library
+     * @return the names and lookups of the library (first) and its
+     *         dependencies, each without the symbols of the other libraries
+     */
+    static synchronized SequencedMap<String, SymbolLookup> loadLibraryWithDependencies(String name, Arena arena) {
+        var dependencies = new LinkedHashMap<String, SymbolLookup>();
+        Set<String> dependencyNames = additionalDependencies.get(name);
+        if (dependencyNames != null) {
+            for (String dependency : dependencyNames) {
+                dependencies.putAll(loadLibraryWithDependencies(dependency, arena));
             }
         }
 
+        var result = new LinkedHashMap<String, SymbolLookup>();
+        result.put(name, loadSingleLibrary(name, arena));
+        dependencies.forEach(result::putIfAbsent);
+        return result;
+    }
+
+    /*
+     * Load the native library with the provided name. The dependencies must
+     * already have been loaded.
+     */
+    private static SymbolLookup loadSingleLibrary(String name, Arena arena) {
+        SymbolLookup lookup = loadedLibraries.get(name);
+        if (lookup != null) return lookup;
+
         InteropException fail = new InteropException("Could not load library " + name);
 
         // If javagi.path was not set, try System::loadLibrary first
         if (!pathOverride) {
             try {
                 lookup = SymbolLookup.libraryLookup(name, arena);
-                for (SymbolLookup dependency : loadedDependencies) lookup = lookup.or(dependency);
                 loadedLibraries.put(name, lookup);
                 return lookup;
             } catch (Throwable t) {
@@ -202,7 +229,6 @@ public class LibLoad {
                     if (possibleNames.contains(fn)) {
                         // Load the library
                         lookup = SymbolLookup.libraryLookup(path, arena);
-                        for (SymbolLookup dependency : loadedDependencies) lookup = lookup.or(dependency);
                         loadedLibraries.put(name, lookup);
                         return lookup;
                     }
@@ -221,7 +247,6 @@ public class LibLoad {
                         Path tempFile = tmp.resolve(n);
                         if (!Files.exists(tempFile)) Files.copy(in, tempFile);
                         lookup = SymbolLookup.libraryLookup(tempFile, arena);
-                        for (SymbolLookup dependency : loadedDependencies) lookup = lookup.or(dependency);
                         loadedLibraries.put(name, lookup);
                         return lookup;
                     }
@@ -235,7 +260,6 @@ public class LibLoad {
         if (pathOverride) {
             try {
                 lookup = SymbolLookup.libraryLookup(name, arena);
-                for (SymbolLookup dependency : loadedDependencies) lookup = lookup.or(dependency);
                 loadedLibraries.put(name, lookup);
                 return lookup;
             } catch (Throwable t) {
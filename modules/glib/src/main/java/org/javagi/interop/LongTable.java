@@ -0,0 +1,256 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An open-addressing hash table with linear probing, with primitive
+ * {@code long} keys (such as memory addresses and GTypes), so the keys are
+ * not boxed.
+ * <p>
+ * The table is not thread-safe: updates must be guarded by the caller. A
+ * lookup reads the keys and values together, and limits the number of
+ * probes, so it always completes when it runs concurrently with an update.
+ * The result is then unreliable, and the caller must validate it (for
+ * example with an optimistic read of a {@link java.util.concurrent.locks.StampedLock}).
+ * <p>
+ * The key {@code 0} marks an empty slot and cannot be used.
+ * <p>
+ * This class is meant for internal use by Java-GI.
+ *
+ * @param <V> the type of the values
+ */
+@NullMarked
+public final class LongTable<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // The keys and values are replaced together when the table is resized,
+    // so a reader never sees keys and values of different sizes.
+    private record Table(long[] keys, @Nullable Object[] values) {
+        Table(int capacity) {
+            this(new long[capacity], new Object[capacity]);
+        }
+    }
+
+    private Table table;
+    private int size;
+
+    /**
+     * Create an empty table.
+     */
+    public LongTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty table with the provided initial capacity.
+     *
+     * @param capacity the initial capacity, must be a power of two
+     */
+    public LongTable(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        table = new Table(capacity);
+    }
+
+    private LongTable(Table table, int size) {
+        this.table = table;
+        this.size = size;
+    }
+
+    /**
+     * Mix the bits of the key. Memory addresses are aligned, so the lower
+     * bits are mixed with the higher bits. The table uses the lower bits of
+     * the hash, so callers can use the upper bits, for example to select a
+     * segment.
+     *
+     * @param  key the key
+     * @return the hash of the key
+     */
+    public static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    /**
+     * Get the value for the provided key.
+     *
+     * @param  key the key
+     * @return the value, or {@code null} if it wasn't found
+     */
+    @SuppressWarnings("unchecked") // only values of type V are stored
+    public @Nullable V get(long key) {
+        Table t = table;
+        long[] keys = t.keys();
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (int probes = 0; probes < keys.length; probes++) {
+            long k = keys[i];
+            if (k == key)
+                return (V) t.values()[i];
+            if (k == 0)
+                return null;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Add or replace the value for the provided key.
+     *
+     * @param  key   the key
+     * @param  value the value
+     * @return the previous value, or {@code null} if there was none
+     */
+    public @Nullable V put(long key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Add the value for the provided key, unless the table already contains
+     * a value for the key.
+     *
+     * @param  key   the key
+     * @param  value the value to add
+     * @return the existing value, or {@code null} if the value was added
+     */
+    public @Nullable V putIfAbsent(long key, V value) {
+        return put(key, value, false);
+    }
+
+    @SuppressWarnings("unchecked") // only values of type V are stored
+    private @Nullable V put(long key, V value, boolean replace) {
+        if (key == 0)
+            throw new IllegalArgumentException("Invalid key 0");
+
+        long[] keys = table.keys();
+        @Nullable Object[] values = table.values();
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                Object existing = values[i];
+                if (replace)
+                    values[i] = value;
+                return (V) existing;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+
+        // Keep the load factor below 0.75
+        if (++size * 4 > keys.length * 3)
+            table = resize(table);
+
+        return null;
+    }
+
+    /**
+     * Remove the value for the provided key.
+     *
+     * @param  key the key
+     * @return the removed value, or {@code null} if it wasn't found
+     */
+    public @Nullable V remove(long key) {
+        return remove(key, null);
+    }
+
+    /**
+     * Remove the value for the provided key, if it is the expected value.
+     *
+     * @param  key      the key
+     * @param  expected the expected value, or {@code null} to remove any value
+     * @return the removed value, or {@code null} if it wasn't removed
+     */
+    @SuppressWarnings("unchecked") // only values of type V are stored
+    public @Nullable V remove(long key, @Nullable V expected) {
+        long[] keys = table.keys();
+        @Nullable Object[] values = table.values();
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == 0)
+                return null;
+            i = (i + 1) & mask;
+        }
+
+        Object value = values[i];
+        if (expected != null && value != expected)
+            return null;
+
+        // Shift the following entries back, so there are no gaps in the
+        // probe sequences
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == 0)
+                break;
+            int home = hash(keys[j]) & mask;
+            boolean inRange = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!inRange) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        values[i] = null;
+        size--;
+        return (V) value;
+    }
+
+    /**
+     * Get the number of entries in the table.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create a copy of the table, for example to publish a modified copy
+     * while readers continue to use the original.
+     *
+     * @return a new table with the same entries
+     */
+    public LongTable<V> copy() {
+        return new LongTable<>(new Table(table.keys().clone(), table.values().clone()), size);
+    }
+
+    private static Table resize(Table table) {
+        long[] keys = table.keys();
+        Table resized = new Table(keys.length * 2);
+        int mask = resized.keys().length - 1;
+        for (int n = 0; n < keys.length; n++) {
+            if (keys[n] == 0)
+                continue;
+            int i = hash(keys[n]) & mask;
+            while (resized.keys()[i] != 0)
+                i = (i + 1) & mask;
+            resized.keys()[i] = keys[n];
+            resized.values()[i] = table.values()[n];
+        }
+        return resized;
+    }
+}
@@ -30,8 +30,8 @@ import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.ref.Cleaner;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Objects.requireNonNull;
 
@@ -41,8 +41,8 @@ import static java.util.Objects.requireNonNull;
  * InstanceCache).
  * <p>
  * When a cached (and owned) Proxy object is garbage-collected, the native
- * memory is released using {@code g_boxed_free}, a custom free-function, or
- * (as a last resort), {@code g_free}.
+ * memory is released by the {@link Reclaimer} using {@code g_boxed_free}, a
+ * custom free-function, or (as a last resort), {@code g_free}.
  * <p>
  * When ownership of a memory address transfers to native code, the cleaner
  * will not free the memory. Take and yield ownership with
@@ -51,28 +51,62 @@ import static java.util.Objects.requireNonNull;
 @NullMarked
 public class MemoryCleaner {
 
-    private static final Cleaner CLEANER = Cleaner.create();
-    private static final Map<MemorySegment, Cached> cache = new HashMap<>();
+    // The registry is split into stripes, each with its own lock, to reduce
+    // contention between threads. The number of stripes is a power of two.
+    // The memory addresses of all cached proxies in a stripe are mapped to
+    // their Cached entry, in a LongTable, so the addresses are not boxed. The
+    // table is only accessed while holding the lock on the stripe.
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    @SuppressWarnings("unchecked") // generic array creation
+    private static final LongTable<Cached>[] cache = (LongTable<Cached>[]) new LongTable<?>[STRIPES];
+    static {
+        for (int i = 0; i < STRIPES; i++)
+            cache[i] = new LongTable<>();
+    }
+
+    // Linked free-functions, by name
+    private static final Map<String, MethodHandle> freeFuncs = new ConcurrentHashMap<>();
+    private static final FunctionDescriptor FREE_FUNC_FDESC = FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
+
+    /*
+     * Get the stripe for the provided memory address. The table uses the
+     * lower bits of the hash, so the upper bits select the stripe.
+     */
+    private static LongTable<Cached> stripe(long address) {
+        return cache[LongTable.hash(address) >>> (Integer.SIZE - STRIPE_BITS)];
+    }
 
     /**
      * Register the memory address of this proxy to be cleaned when the proxy
-     * gets garbage-collected.
+     * gets garbage-collected. The caller must hold the lock on the stripe.
      *
      * @param proxy The proxy instance
      */
-    private static Cached getOrRegister(Proxy proxy) {
-        MemorySegment address = requireNonNull(proxy.handle());
-        Cached cached = cache.get(address);
+    private static Cached getOrRegister(LongTable<Cached> stripe, Proxy proxy, long address) {
+        Cached cached = stripe.get(address);
         if (cached == null) {
             // Put the address in the cache
-            var finalizer = new StructFinalizer(address);
-            var cleanable = CLEANER.register(proxy, finalizer);
-            cached = new Cached(false, null, null, cleanable);
-            cache.put(address, cached);
+            var finalizer = new StructFinalizer(requireNonNull(proxy.handle()));
+            var cleanable = Reclaimer.CLEANER.register(proxy, finalizer);
+            cached = new Cached(cleanable);
+            stripe.put(address, cached);
         }
         return cached;
     }
 
+    /*
+     * Get the linked free-function with the provided name. The downcall handle
+     * is only created once for every function name.
+     */
+    private static MethodHandle freeFunc(String name) {
+        MethodHandle handle = freeFuncs.get(name);
+        if (handle != null)
+            return handle;
+        return freeFuncs.computeIfAbsent(name,
+                _ -> Interop.downcallHandle(name, FREE_FUNC_FDESC, false));
+    }
+
     /**
      * Register a specialized cleanup function for this proxy instance, instead
      * of the default {@link GLib#free(MemorySegment)}.
@@ -81,13 +115,15 @@ public class MemoryCleaner {
      * @param freeFunc the specialized cleanup function to call
      */
     public static void setFreeFunc(Proxy proxy, String freeFunc) {
-        MemorySegment address = proxy.handle();
-        if (MemorySegment.NULL.equals(address))
+        MemorySegment segment = proxy.handle();
+        if (MemorySegment.NULL.equals(segment))
             return;
 
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(address, new Cached(cached.owned, freeFunc, cached.boxedType, cached.cleanable));
+        MethodHandle handle = freeFunc(freeFunc);
+        long address = requireNonNull(segment).address();
+        LongTable<Cached> stripe = stripe(address);
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy, address).freeFunc = handle;
         }
     }
 
@@ -99,13 +135,15 @@ public class MemoryCleaner {
      * @param boxedType the boxed type
      */
     public static void setBoxedType(Proxy proxy, @Nullable Type boxedType) {
-        MemorySegment address = proxy.handle();
-        if (MemorySegment.NULL.equals(address))
+        MemorySegment segment = proxy.handle();
+        if (MemorySegment.NULL.equals(segment))
             return;
 
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(address, new Cached(cached.owned, cached.freeFunc, boxedType, cached.cleanable));
+        long gtype = boxedType == null ? 0L : boxedType.getValue();
+        long address = requireNonNull(segment).address();
+        LongTable<Cached> stripe = stripe(address);
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy, address).boxedType = gtype;
         }
     }
 
@@ -116,13 +154,14 @@ public class MemoryCleaner {
      * @param proxy  the proxy instance
      */
     public static void takeOwnership(Proxy proxy) {
-        MemorySegment address = proxy.handle();
-        if (MemorySegment.NULL.equals(address))
+        MemorySegment segment = proxy.handle();
+        if (MemorySegment.NULL.equals(segment))
             return;
 
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(address, new Cached(true, cached.freeFunc, cached.boxedType, cached.cleanable));
+        long address = requireNonNull(segment).address();
+        LongTable<Cached> stripe = stripe(address);
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy, address).owned = true;
         }
     }
 
@@ -133,14 +172,16 @@ public class MemoryCleaner {
      * @param proxy  the proxy instance
      */
     public static void yieldOwnership(Proxy proxy) {
-        MemorySegment address = proxy.handle();
-        if (MemorySegment.NULL.equals(address))
+        MemorySegment segment = proxy.handle();
+        if (MemorySegment.NULL.equals(segment))
             return;
 
-        synchronized (cache) {
-            Cached cached = cache.get(address);
+        long address = requireNonNull(segment).address();
+        LongTable<Cached> stripe = stripe(address);
+        synchronized (stripe) {
+            Cached cached = stripe.get(address);
             if (cached != null) {
-                cache.put(address, new Cached(false, cached.freeFunc, cached.boxedType, cached.cleanable));
+                cached.owned = false;
                 cached.cleanable.clean();
             }
         }
@@ -157,77 +198,95 @@ public class MemoryCleaner {
      */
     public static void free(@Nullable MemorySegment address) {
         if (address != null) {
-            synchronized (cache) {
-                Cached cached = cache.get(address);
-                if (cached != null)
-                    cached.cleanable.clean();
+            Cached cached;
+            LongTable<Cached> stripe = stripe(address.address());
+            synchronized (stripe) {
+                cached = stripe.get(address.address());
+                if (cached == null)
+                    return;
+                cached.explicit = true;
             }
+            cached.cleanable.clean();
         }
     }
 
     /**
-     * This record type is cached for each memory address.
-     *
-     * @param owned     whether this address is owned (should be cleaned)
-     * @param freeFunc  an (optional) specialized function that will release
-     *                  the native memory
-     * @param boxedType an (optional) GType of a boxed type to release with
-     *                  {@code g_boxed_free}
-     * @param cleanable a cleaning action that will be run by the GC
+     * This mutable entry is cached for each memory address. It is only read
+     * and written while holding the lock on its stripe.
      */
-    private record Cached(boolean owned,
-                          @Nullable String freeFunc,
-                          @Nullable Type boxedType,
-                          Cleaner.Cleanable cleanable) {
+    private static final class Cached {
+        // whether this address is owned (should be cleaned)
+        boolean owned;
+
+        // an (optional) specialized function that will release the native
+        // memory
+        @Nullable MethodHandle freeFunc;
+
+        // an (optional) GType of a boxed type to release with g_boxed_free,
+        // or 0 when not set
+        long boxedType;
+
+        // whether the memory is freed explicitly (and not by the GC), so it
+        // is released immediately instead of queued
+        boolean explicit;
+
+        // a cleaning action that will be run by the GC
+        final Cleaner.Cleanable cleanable;
+
+        Cached(Cleaner.Cleanable cleanable) {
+            this.cleanable = cleanable;
+        }
     }
 
     /**
      * This callback is run by the {@link Cleaner} when a Java Proxy object for
      * a native struct/union has become unreachable, to free the native memory.
+     * The memory is released by the {@link Reclaimer}.
      */
     private record StructFinalizer(MemorySegment address) implements Runnable {
 
-        private static final MethodHandle g_boxed_free = Interop.downcallHandle(
-                "g_boxed_free",
-                FunctionDescriptor.ofVoid(ValueLayout.JAVA_LONG, ValueLayout.ADDRESS),
-                false);
-
         /**
          * This method is run by the {@link Cleaner} when the last Proxy object
          * for this memory address is garbage-collected.
          */
         public void run() {
-            Cached cached;
-            synchronized (cache) {
+            boolean owned;
+            boolean explicit;
+            long boxedType;
+            MethodHandle freeFunc;
+            LongTable<Cached> stripe = stripe(address.address());
+            synchronized (stripe) {
                 // Retrieve and remove the address from the cache
-                cached = cache.get(address);
-                cache.remove(address);
+                Cached cached = stripe.remove(address.address());
+                if (cached == null)
+                    return;
+                owned = cached.owned;
+                explicit = cached.explicit;
+                boxedType = cached.boxedType;
+                freeFunc = cached.freeFunc;
             }
 
             // if we don't have ownership, we must not run the free-function
-            if (!cached.owned) {
+            if (!owned) {
+                return;
+            }
+
+            // release the memory now when it is freed explicitly
+            if (explicit) {
+                Reclaimer.release(address, boxedType, freeFunc);
                 return;
             }
 
-            // run the free-function
-            try {
-                if (cached.boxedType != null) {
-                    // free boxed type
-                    long gtype = cached.boxedType.getValue();
-                    g_boxed_free.invokeExact(gtype, address);
-                } else if (cached.freeFunc != null) {
-                    // Run specialized free-function
-                    Interop.downcallHandle(
-                            cached.freeFunc,
-                            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS),
-                            false
-                    ).invokeExact(address);
-                } else {
-                    // Fallback to g_free()
-                    GLib.free(address);
-                }
-            } catch (Throwable err) {
-                throw new AssertionError(err);
+            // queue the address to be released
+            if (boxedType != 0L) {
+                // free boxed type
+                Reclaimer.freeBoxed(address, boxedType);
+            } else if (freeFunc != null) {
+                // Run specialized free-function
+                Reclaimer.free(address, freeFunc);
+            } else {
+                // Fallback to g_free()
+                Reclaimer.free(address);
             }
         }
     }
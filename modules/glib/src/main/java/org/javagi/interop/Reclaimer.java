@@ -0,0 +1,347 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.gnome.glib.GLib;
+import org.gnome.glib.LogLevelFlags;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.Cleaner;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.javagi.base.Constants.LOG_DOMAIN;
+
+/**
+ * The Reclaimer releases native resources of garbage-collected proxy objects
+ * in batches.
+ * <p>
+ * All Java-GI cleaning actions are registered with the shared
+ * {@link #CLEANER}. Instead of calling a free-function directly, the cleaning
+ * actions queue the memory address in a lock-free queue. A background thread
+ * frees the queued addresses when the batch size is reached, or when the
+ * flush interval has passed. Memory that is freed explicitly (with
+ * {@link MemoryCleaner#free}) is released immediately.
+ * <p>
+ * Actions that must run in the default GLib main context (such as removing a
+ * toggle reference) are queued as well, and are run from one idle callback
+ * with {@code g_main_context_invoke_full}, instead of one invocation per
+ * object. When the callback is dispatched by a running main loop, it stops
+ * after a time budget has passed, and continues with the remaining actions
+ * in the next main loop iteration, so a large number of collected objects
+ * will not block the main loop.
+ * <p>
+ * The batch size, flush interval (in milliseconds) and main context time
+ * budget (in microseconds) can be configured with the
+ * {@code javagi.reclaim.batchSize}, {@code javagi.reclaim.flushInterval} and
+ * {@code javagi.reclaim.mainContextBudget} system properties. The number of
+ * queued main context actions and the latency until they are run, and the
+ * number of freed addresses, can be retrieved with {@link #statistics()}.
+ */
+@NullMarked
+public final class Reclaimer {
+
+    /**
+     * The Cleaner that is shared by all Java-GI cleaning actions.
+     */
+    public static final Cleaner CLEANER = Cleaner.create();
+
+    private static final int BATCH_SIZE =
+            Integer.getInteger("javagi.reclaim.batchSize", 256);
+    private static final long FLUSH_INTERVAL_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("javagi.reclaim.flushInterval", 50));
+    private static final long MAIN_CONTEXT_BUDGET_NANOS =
+            TimeUnit.MICROSECONDS.toNanos(Long.getLong("javagi.reclaim.mainContextBudget", 2000));
+
+    private static final int G_PRIORITY_DEFAULT_IDLE = 200;
+
+    // A queued address with its free-function, or the GType of a boxed type
+    private record Pending(MemorySegment address, long boxedType, @Nullable MethodHandle freeFunc) {
+    }
+
+    // A queued action that must run in the default main context
+    private record MainContextAction(MemorySegment address, Consumer<MemorySegment> action, long queued) {
+    }
+
+    /**
+     * Statistics of the actions that are run in the default main context.
+     *
+     * @param queued     the number of actions that are currently queued
+     * @param completed  the number of actions that have been run
+     * @param drains     the number of main context callbacks that ran actions
+     * @param maxDrain   the longest time spent in one main context callback
+     * @param avgLatency the average time between queueing and running an
+     *                   action
+     * @param maxLatency the longest time between queueing and running an
+     *                   action
+     * @param freed      the number of memory addresses that have been freed
+     */
+    public record Statistics(int queued, long completed, long drains,
+                             Duration maxDrain, Duration avgLatency, Duration maxLatency,
+                             long freed) {
+    }
+
+    private static final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pendingCount = new AtomicInteger();
+    private static final ConcurrentLinkedQueue<MainContextAction> mainContextActions = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger mainContextCount = new AtomicInteger();
+    private static final AtomicBoolean mainContextScheduled = new AtomicBoolean();
+
+    private static final LongAdder completed = new LongAdder();
+    private static final LongAdder freed = new LongAdder();
+    private static final LongAdder drains = new LongAdder();
+    private static final LongAdder latencyNanos = new LongAdder();
+    private static final AtomicLong maxDrainNanos = new AtomicLong();
+    private static final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private static final MethodHandle g_boxed_free = Interop.downcallHandle(
+            "g_boxed_free",
+            FunctionDescriptor.ofVoid(ValueLayout.JAVA_LONG, ValueLayout.ADDRESS),
+            false);
+
+    private static final MethodHandle g_free = Interop.downcallHandle(
+            "g_free",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS),
+            false);
+
+    private static final MethodHandle g_main_context_default = Interop.downcallHandle(
+            "g_main_context_default",
+            FunctionDescriptor.of(ValueLayout.ADDRESS),
+            false);
+
+    private static final MethodHandle g_main_context_invoke_full = Interop.downcallHandle(
+            "g_main_context_invoke_full",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            false);
+
+    private static final MethodHandle g_main_depth = Interop.downcallHandle(
+            "g_main_depth",
+            FunctionDescriptor.of(ValueLayout.JAVA_INT),
+            false);
+
+    private static final MemorySegment DRAIN_MAIN_CONTEXT_ACTIONS;
+    private static final Thread THREAD;
+
+    static {
+        GLib.javagi$ensureInitialized();
+
+        // Allocate the upcall stub for the drainMainContextActions callback
+        try {
+            FunctionDescriptor fdesc = FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS);
+            MethodHandle handle = MethodHandles.lookup().findStatic(
+                    Reclaimer.class, "drainMainContextActions", fdesc.toMethodType());
+            DRAIN_MAIN_CONTEXT_ACTIONS = Linker.nativeLinker().upcallStub(handle, fdesc, Arena.global());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new InteropException(e);
+        }
+
+        THREAD = Thread.ofPlatform()
+                .name("java-gi-reclaimer")
+                .daemon()
+                .start(Reclaimer::run);
+    }
+
+    private Reclaimer() {
+    }
+
+    /**
+     * Queue the memory address to be freed with {@code g_free}.
+     *
+     * @param address the memory address to free
+     */
+    public static void free(MemorySegment address) {
+        enqueue(new Pending(address, 0L, g_free));
+    }
+
+    /**
+     * Queue the memory address to be freed with the provided free-function.
+     * The free-function must have one {@code MemorySegment} parameter and
+     * return {@code void}.
+     *
+     * @param address  the memory address to free
+     * @param freeFunc the free-function
+     */
+    public static void free(MemorySegment address, MethodHandle freeFunc) {
+        enqueue(new Pending(address, 0L, freeFunc));
+    }
+
+    /**
+     * Queue the memory address to be freed with {@code g_boxed_free}.
+     *
+     * @param address   the memory address to free
+     * @param boxedType the GType of the boxed type
+     */
+    public static void freeBoxed(MemorySegment address, long boxedType) {
+        enqueue(new Pending(address, boxedType, null));
+    }
+
+    /**
+     * Queue an action that will be run in the default GLib main context. All
+     * actions that are queued before the main context runs, are handled from
+     * one callback.
+     *
+     * @param address the memory address that is passed to the action
+     * @param action  the action to run
+     */
+    public static void invokeInMainContext(MemorySegment address, Consumer<MemorySegment> action) {
+        mainContextActions.add(new MainContextAction(address, action, System.nanoTime()));
+        mainContextCount.incrementAndGet();
+        if (mainContextScheduled.compareAndSet(false, true)) {
+            try {
+                var context = (MemorySegment) g_main_context_default.invokeExact();
+                g_main_context_invoke_full.invokeExact(context, G_PRIORITY_DEFAULT_IDLE,
+                        DRAIN_MAIN_CONTEXT_ACTIONS, MemorySegment.NULL, MemorySegment.NULL);
+            } catch (Throwable _err) {
+                throw new AssertionError(_err);
+            }
+        }
+    }
+
+    /**
+     * Get the statistics of the actions that are run in the default main
+     * context.
+     *
+     * @return the current statistics
+     */
+    public static Statistics statistics() {
+        long count = completed.sum();
+        return new Statistics(mainContextCount.get(),
+                              count,
+                              drains.sum(),
+                              Duration.ofNanos(maxDrainNanos.get()),
+                              Duration.ofNanos(count == 0 ? 0 : latencyNanos.sum() / count),
+                              Duration.ofNanos(maxLatencyNanos.get()),
+                              freed.sum());
+    }
+
+    /**
+     * Free all queued memory addresses on the current thread.
+     */
+    public static void flush() {
+        Pending next;
+        while ((next = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            release(next.address(), next.boxedType(), next.freeFunc());
+        }
+    }
+
+    /*
+     * Free the memory address immediately, with g_boxed_free when the boxed
+     * type is set, or else with the free-function (or g_free when it is null).
+     */
+    static void release(MemorySegment address, long boxedType, @Nullable MethodHandle freeFunc) {
+        try {
+            if (boxedType != 0L)
+                g_boxed_free.invokeExact(boxedType, address);
+            else if (freeFunc != null)
+                freeFunc.invokeExact(address);
+            else
+                g_free.invokeExact(address);
+            freed.increment();
+        } catch (Throwable err) {
+            logError(err);
+        }
+    }
+
+    private static void enqueue(Pending p) {
+        pending.add(p);
+        if (pendingCount.incrementAndGet() == BATCH_SIZE)
+            LockSupport.unpark(THREAD);
+    }
+
+    // Main loop of the reclaimer thread
+    private static void run() {
+        while (true) {
+            if (pendingCount.get() < BATCH_SIZE)
+                LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+            flush();
+        }
+    }
+
+    /*
+     * Run the queued main context actions. This is called from the default
+     * main context. When it is dispatched from a running main loop, it stops
+     * when the time budget has passed, and returns G_SOURCE_CONTINUE to run
+     * the remaining actions in the next main loop iteration. Otherwise (when
+     * g_main_context_invoke_full acquired the context and calls it directly)
+     * there is no main loop to block, and all actions are run at once.
+     */
+    @SuppressWarnings("unused")
+    private static int drainMainContextActions(MemorySegment ignored) {
+        // Actions that are queued after this point, will schedule a new
+        // callback
+        mainContextScheduled.set(false);
+
+        long start = System.nanoTime();
+        boolean bounded = mainDepth() > 0;
+        long now = start;
+        MainContextAction next;
+        while ((next = mainContextActions.poll()) != null) {
+            mainContextCount.decrementAndGet();
+            long latency = now - next.queued();
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            try {
+                next.action().accept(next.address());
+            } catch (Throwable err) {
+                logError(err);
+            }
+            completed.increment();
+            now = System.nanoTime();
+            if (bounded && now - start >= MAIN_CONTEXT_BUDGET_NANOS)
+                break;
+        }
+
+        drains.increment();
+        maxDrainNanos.accumulateAndGet(now - start, Math::max);
+
+        // Continue in the next main loop iteration, unless another callback
+        // was scheduled meanwhile
+        if (next != null && !mainContextActions.isEmpty()
+                && mainContextScheduled.compareAndSet(false, true))
+            return 1; // G_SOURCE_CONTINUE
+        return 0; // G_SOURCE_REMOVE
+    }
+
+    private static int mainDepth() {
+        try {
+            return (int) g_main_depth.invokeExact();
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
+        }
+    }
+
+    private static void logError(Throwable err) {
+        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_WARNING,
+                "Error while releasing native memory: %s\n", err.toString());
+    }
+}
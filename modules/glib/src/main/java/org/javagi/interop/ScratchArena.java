@@ -0,0 +1,166 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * An arena for short-lived allocations during a native function call, that
+ * allocates from a per-thread buffer instead of allocating new native memory.
+ * <p>
+ * Every platform thread has a scratch buffer (64 KB by default, configurable
+ * with the {@code javagi.scratchSize} system property). A scratch arena
+ * remembers the current position in the buffer when it is opened, and
+ * allocates memory by bumping that position. When the arena is closed, the
+ * position is reset. Scratch arenas can be nested (for example, when a native
+ * function calls back into Java code that also calls a native function), as
+ * long as they are closed in reverse order of opening. This is always the case
+ * when they are used in a try-with-resources block. Only the most recently
+ * opened scratch arena of a thread can allocate memory.
+ * <p>
+ * Opening and closing a scratch arena doesn't create a new memory session:
+ * the allocated segments belong to the scope of the scratch buffer, and each
+ * arena checks with a generation number that it is still open. The segments
+ * are therefore not invalidated when the arena is closed, and must not be
+ * used after that, because the memory will be reused. When an allocation
+ * does not fit in the remaining space of the buffer, it is allocated in a
+ * confined arena that is closed together with the scratch arena.
+ * <p>
+ * The {@link #scope()} of a scratch arena is the scope of that confined
+ * arena. Upcall stubs and reinterpreted segments that are attached to the
+ * scratch arena are therefore freed and invalidated when it is closed.
+ * <p>
+ * Virtual threads don't get a scratch buffer: {@link #open()} returns a
+ * confined arena when it is called on a virtual thread.
+ */
+@NullMarked
+public final class ScratchArena implements Arena {
+
+    private static final long BUFFER_SIZE = Long.getLong("javagi.scratchSize", 64 * 1024);
+    private static final long BUFFER_ALIGNMENT = 16;
+
+    // The scratch buffer of a platform thread
+    private static final class Buffer {
+        private final MemorySegment segment = Arena.ofAuto().allocate(BUFFER_SIZE, BUFFER_ALIGNMENT);
+        private long offset = 0;
+
+        // The generation of the most recently opened scratch arena that is
+        // still open, and the last generation that was handed out
+        private long current = 0;
+        private long generations = 0;
+    }
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private final Buffer buffer;
+    private final long mark;
+    private final long generation;
+    private final long parent;
+    private final Thread owner;
+    private boolean closed = false;
+
+    // Arena for allocations that don't fit in the scratch buffer
+    private @Nullable Arena overflow;
+
+    private ScratchArena(Buffer buffer) {
+        this.buffer = buffer;
+        this.mark = buffer.offset;
+        this.parent = buffer.current;
+        this.generation = ++buffer.generations;
+        this.owner = Thread.currentThread();
+        buffer.current = generation;
+    }
+
+    /**
+     * Open a scratch arena on the current thread. On a virtual thread, a
+     * confined arena is returned.
+     *
+     * @return the new arena
+     */
+    public static Arena open() {
+        if (Thread.currentThread().isVirtual())
+            return Arena.ofConfined();
+        return new ScratchArena(BUFFERS.get());
+    }
+
+    @Override
+    public MemorySegment allocate(long byteSize, long byteAlignment) {
+        checkOpen();
+
+        // Let the confined arena validate (and reject) invalid arguments
+        if (byteSize < 0 || Long.bitCount(byteAlignment) != 1)
+            return overflow().allocate(byteSize, byteAlignment);
+
+        // Align the absolute address of the allocation
+        long base = buffer.segment.address();
+        long start = ((base + buffer.offset + byteAlignment - 1) & -byteAlignment) - base;
+        if (byteSize > BUFFER_SIZE || start + byteSize > BUFFER_SIZE)
+            return overflow().allocate(byteSize, byteAlignment);
+
+        buffer.offset = start + byteSize;
+        return buffer.segment.asSlice(start, byteSize).fill((byte) 0);
+    }
+
+    /**
+     * The scope of the confined arena that is closed together with this
+     * scratch arena. Note that the segments that are allocated in the scratch
+     * buffer have the scope of the buffer.
+     */
+    @Override
+    public MemorySegment.Scope scope() {
+        checkOpen();
+        return overflow().scope();
+    }
+
+    /**
+     * Close the scratch arena. The allocated memory in the scratch buffer
+     * will be reused.
+     */
+    @Override
+    public void close() {
+        checkOpen();
+        closed = true;
+        buffer.current = parent;
+        buffer.offset = mark;
+        if (overflow != null)
+            overflow.close();
+    }
+
+    // Check that this is the most recently opened scratch arena on this
+    // thread, and it is still open
+    private void checkOpen() {
+        if (Thread.currentThread() != owner)
+            throw new WrongThreadException("Scratch arena is confined to thread " + owner);
+        if (closed)
+            throw new IllegalStateException("Already closed");
+        if (buffer.current != generation)
+            throw new IllegalStateException("A nested scratch arena is still open");
+    }
+
+    private Arena overflow() {
+        if (overflow == null)
+            overflow = Arena.ofConfined();
+        return overflow;
+    }
+}
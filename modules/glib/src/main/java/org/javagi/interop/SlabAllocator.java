@@ -0,0 +1,191 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+
+/**
+ * Allocates small fixed-size structs in shared slabs of native memory,
+ * instead of allocating native memory for every struct.
+ * <p>
+ * Structs are grouped in size classes of 16 bytes, up to 256 bytes. Each size
+ * class has a pool of free slots. When the pool is empty, a new slab with
+ * {@code javagi.slabSize} (default: 64) slots is allocated. Slabs are never
+ * freed, so the memory usage of a size class is bounded by its peak usage.
+ * <p>
+ * A slot that is allocated with {@link #allocate(MemoryLayout)} gets its own
+ * automatic scope. All segments that are derived from it (for example with
+ * {@link MemorySegment#asSlice}) share this scope, and the slot is returned to
+ * the pool when none of them is reachable anymore. For explicit, scoped reuse,
+ * allocate structs in an arena that is returned by {@link #open()}. The slots
+ * of that arena are returned to the pool immediately when it is closed.
+ * <p>
+ * Larger structs, or structs with an alignment of more than 16 bytes, are
+ * allocated with {@link Arena#ofAuto()} (or in the confined arena of a scoped
+ * slab arena). Slab allocation can be disabled with the
+ * {@code javagi.slabAllocation} system property.
+ */
+@NullMarked
+public final class SlabAllocator {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("javagi.slabAllocation", "true"));
+    private static final int SLOTS_PER_SLAB = Math.max(1, Integer.getInteger("javagi.slabSize", 64));
+    private static final long GRANULARITY = 16;
+    private static final long MAX_SLOT_SIZE = 256;
+
+    // Pools of free slots, one for each size class. The most recently
+    // released slot is reused first.
+    @SuppressWarnings("unchecked")
+    private static final Deque<MemorySegment>[] POOLS = new Deque[(int) (MAX_SLOT_SIZE / GRANULARITY)];
+    static {
+        for (int i = 0; i < POOLS.length; i++)
+            POOLS[i] = new ConcurrentLinkedDeque<>();
+    }
+
+    private SlabAllocator() {
+    }
+
+    /**
+     * Allocate zero-initialized memory for a struct with the provided memory
+     * layout. The memory is returned to the pool when the returned segment
+     * and all segments that are derived from it are garbage-collected.
+     *
+     * @param  layout the memory layout of the struct
+     * @return the allocated memory segment
+     */
+    public static MemorySegment allocate(MemoryLayout layout) {
+        if (!fits(layout.byteSize(), layout.byteAlignment()))
+            return Arena.ofAuto().allocate(layout);
+
+        MemorySegment slot = take(layout.byteSize());
+
+        // The cleanup action only captures the slot, so it doesn't keep the
+        // automatic arena alive
+        return slot.reinterpret(layout.byteSize(), Arena.ofAuto(), _ -> release(slot));
+    }
+
+    /**
+     * Open a confined arena that allocates small structs in slab slots. When
+     * the arena is closed, its segments are invalidated and the slots are
+     * returned to the pool for reuse.
+     *
+     * @return the new arena
+     */
+    public static Arena open() {
+        return new SlabArena();
+    }
+
+    /**
+     * Allocate zero-initialized memory for {@code count} structs with the
+     * provided memory layout in one contiguous block, and create a proxy
+     * instance for each of them. The memory is released when all proxy
+     * instances (and segments of the block) are garbage-collected.
+     *
+     * @param  layout      the memory layout of the struct
+     * @param  count       the number of structs to allocate
+     * @param  constructor creates a proxy instance for a memory segment
+     * @param  <T>         the proxy type
+     * @return a list with the proxy instances, in the order of their
+     *         memory addresses
+     */
+    public static <T> List<T> allocateContiguous(MemoryLayout layout, int count,
+                                                 Function<MemorySegment, T> constructor) {
+        MemorySegment block = Arena.ofAuto().allocate(MemoryLayout.sequenceLayout(count, layout));
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            result.add(constructor.apply(block.asSlice(i * layout.byteSize(), layout)));
+        return result;
+    }
+
+    // Check if an allocation fits in a slot
+    private static boolean fits(long byteSize, long byteAlignment) {
+        return ENABLED && byteSize > 0 && byteSize <= MAX_SLOT_SIZE
+                && byteAlignment > 0 && byteAlignment <= GRANULARITY;
+    }
+
+    // Take a free, zero-initialized slot for an allocation of this size
+    private static MemorySegment take(long byteSize) {
+        int sizeClass = (int) ((byteSize - 1) / GRANULARITY);
+        MemorySegment slot = POOLS[sizeClass].poll();
+        if (slot == null)
+            slot = allocateSlab(sizeClass);
+        return slot.fill((byte) 0);
+    }
+
+    // Return a slot to the pool of its size class
+    private static void release(MemorySegment slot) {
+        POOLS[(int) (slot.byteSize() / GRANULARITY) - 1].push(slot);
+    }
+
+    // Allocate a new slab, add all slots but one to the pool, and return that one
+    private static MemorySegment allocateSlab(int sizeClass) {
+        long slotSize = (sizeClass + 1) * GRANULARITY;
+        MemorySegment slab = Arena.global().allocate(slotSize * SLOTS_PER_SLAB, GRANULARITY);
+        for (int i = 1; i < SLOTS_PER_SLAB; i++)
+            POOLS[sizeClass].add(slab.asSlice(i * slotSize, slotSize));
+        return slab.asSlice(0, slotSize);
+    }
+
+    /*
+     * A confined arena that takes slots from the pools, and returns them when
+     * it is closed. The segments are attached to the scope of the confined
+     * arena, so they are invalidated when it is closed.
+     */
+    private static final class SlabArena implements Arena {
+        private final Arena arena = Arena.ofConfined();
+        private final List<MemorySegment> slots = new ArrayList<>();
+        private final Thread owner = Thread.currentThread();
+
+        @Override
+        public MemorySegment allocate(long byteSize, long byteAlignment) {
+            if (Thread.currentThread() != owner)
+                throw new WrongThreadException("Slab arena is confined to thread " + owner);
+            if (!fits(byteSize, byteAlignment) || !arena.scope().isAlive())
+                return arena.allocate(byteSize, byteAlignment);
+
+            MemorySegment slot = take(byteSize);
+            slots.add(slot);
+            return slot.reinterpret(byteSize, arena, null);
+        }
+
+        @Override
+        public MemorySegment.Scope scope() {
+            return arena.scope();
+        }
+
+        @Override
+        public void close() {
+            arena.close();
+            for (MemorySegment slot : slots)
+                release(slot);
+            slots.clear();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The symbol table resolves the names of native functions to their memory
+ * address in the loaded libraries.
+ * <p>
+ * Every name is only resolved once: the result is cached, including when the
+ * symbol was not found. The cached negative results are discarded when
+ * another library is loaded. The libraries are searched in reverse order of
+ * loading (so the most recently loaded library first), followed by the
+ * default lookup of the native linker.
+ * <p>
+ * The time spent resolving symbols is recorded per library, and can be
+ * retrieved with {@link #statistics()} or {@link #report()}.
+ */
+@NullMarked
+public final class SymbolTable {
+
+    // A loaded library with symbol resolution statistics
+    private record Library(String name, SymbolLookup lookup,
+                           LongAdder lookups, LongAdder resolved, LongAdder nanos) {
+        Library(String name, SymbolLookup lookup) {
+            this(name, lookup, new LongAdder(), new LongAdder(), new LongAdder());
+        }
+    }
+
+    /**
+     * Symbol resolution statistics for one library.
+     *
+     * @param library  the name of the library
+     * @param lookups  the number of symbols that were looked up in the library
+     * @param resolved the number of symbols that were found in the library
+     * @param time     the total time spent looking up symbols in the library
+     */
+    public record Statistics(String library, long lookups, long resolved, Duration time) {
+    }
+
+    private static final Library DEFAULT_LIBRARY =
+            new Library("(default)", Linker.nativeLinker().defaultLookup());
+
+    // The loaded libraries, most recently loaded first. Replaced (never
+    // modified) when a library is loaded.
+    private static volatile Library[] libraries = { DEFAULT_LIBRARY };
+
+    // Symbol name -> address, or Optional.empty() when it was not found
+    private static final Map<String, Optional<MemorySegment>> symbols = new ConcurrentHashMap<>();
+
+    private SymbolTable() {
+    }
+
+    /**
+     * Load the native library with the provided name, and its dependencies,
+     * and add them to the symbol table.
+     *
+     * @param name the name of the library
+     */
+    static synchronized void loadLibrary(String name) {
+        var loaded = LibLoad.loadLibraryWithDependencies(name, Arena.global());
+        var current = libraries;
+        var updated = new ArrayList<Library>(loaded.size() + current.length);
+
+        // The new library (and its dependencies) are searched first
+        for (var entry : loaded.entrySet()) {
+            boolean exists = false;
+            for (Library library : current)
+                if (library.name().equals(entry.getKey()))
+                    exists = true;
+            if (!exists)
+                updated.add(new Library(entry.getKey(), entry.getValue()));
+        }
+
+        if (updated.isEmpty())
+            return;
+
+        updated.addAll(List.of(current));
+        libraries = updated.toArray(Library[]::new);
+
+        // Symbols that were not found before, may exist in the new library
+        symbols.values().removeIf(Optional::isEmpty);
+    }
+
+    /**
+     * Find the address of the symbol with the provided name.
+     *
+     * @param  name the name of the symbol
+     * @return the address of the symbol, or an empty Optional when it was not
+     *         found in any of the loaded libraries
+     */
+    public static Optional<MemorySegment> find(String name) {
+        Optional<MemorySegment> symbol = symbols.get(name);
+        if (symbol != null)
+            return symbol;
+
+        Library[] snapshot = libraries;
+        symbol = resolve(name, snapshot);
+        Optional<MemorySegment> existing = symbols.putIfAbsent(name, symbol);
+        if (existing != null)
+            return existing;
+
+        // Don't keep a negative result when a library was loaded meanwhile
+        if (symbol.isEmpty() && snapshot != libraries)
+            symbols.remove(name, symbol);
+
+        return symbol;
+    }
+
+    private static Optional<MemorySegment> resolve(String name, Library[] snapshot) {
+        for (Library library : snapshot) {
+            long start = System.nanoTime();
+            Optional<MemorySegment> symbol = library.lookup().find(name);
+            library.nanos().add(System.nanoTime() - start);
+            library.lookups().increment();
+            if (symbol.isPresent()) {
+                library.resolved().increment();
+                return symbol;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get the symbol resolution statistics of all loaded libraries, in the
+     * order in which they are searched.
+     *
+     * @return a list with the statistics of each library
+     */
+    public static List<Statistics> statistics() {
+        return Arrays.stream(libraries)
+                .map(l -> new Statistics(l.name(),
+                                         l.lookups().sum(),
+                                         l.resolved().sum(),
+                                         Duration.ofNanos(l.nanos().sum())))
+                .toList();
+    }
+
+    /**
+     * Create a human-readable report of the time spent resolving symbols in
+     * each library.
+     *
+     * @return a multi-line report with one line for each library
+     */
+    public static String report() {
+        var report = new StringBuilder("Symbol resolution time per library:\n");
+        for (Statistics stats : statistics())
+            report.append("%10.3f ms  %6d lookups  %6d resolved  %s%n".formatted(
+                    stats.time().toNanos() / 1_000_000.0,
+                    stats.lookups(),
+                    stats.resolved(),
+                    stats.library()));
+        return report.toString();
+    }
+}
@@ -0,0 +1,308 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.interop;
+
+import org.gnome.glib.GLib;
+import org.gnome.glib.LogLevelFlags;
+import org.javagi.base.FunctionPointer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import static org.javagi.base.Constants.LOG_DOMAIN;
+
+/**
+ * Shared upcall stubs ("trampolines") for callback types.
+ * <p>
+ * Creating an upcall stub is expensive, and every stub occupies executable
+ * memory until its arena is closed. Instead of creating an upcall stub for
+ * every callback instance, a trampoline is created only once for each
+ * callback type. The callback instance is registered in a table, and its key
+ * is passed to native code as the {@code user_data} pointer. The trampoline
+ * retrieves the callback instance from the table and calls its upcall method.
+ * <p>
+ * The table entry is removed by the {@link #UNREGISTER_SYM} DestroyNotify
+ * callback. Callbacks with async scope are only called once, so they are
+ * registered with {@link #registerAsync} and removed from the table when
+ * they are called.
+ * <p>
+ * When no callback instance is registered for a {@code user_data} pointer,
+ * the trampoline logs a critical message and returns a zero value, instead
+ * of throwing an exception into native code.
+ */
+@NullMarked
+public final class Trampolines {
+
+    // Registered callback instances, keyed by the user_data pointer. The
+    // tables are guarded by the lock. A lookup uses an optimistic read, so
+    // the dispatch doesn't lock or allocate.
+    private static final StampedLock LOCK = new StampedLock();
+    private static final LongTable<FunctionPointer> CALLBACKS = new LongTable<>();
+    private static final LongTable<FunctionPointer> ASYNC_CALLBACKS = new LongTable<>();
+    private static final AtomicLong NEXT_KEY = new AtomicLong(1);
+
+    // One trampoline for every callback type
+    private static final Map<Class<?>, MemorySegment> TRAMPOLINES = new ConcurrentHashMap<>();
+
+    private static final MethodHandle LOOKUP_CALLBACK;
+    private static final MethodHandle LOG_FAILURE;
+
+    /**
+     * The upcall stub for the DestroyNotify callback method that removes a
+     * registered callback instance from the table.
+     */
+    public static final MemorySegment UNREGISTER_SYM;
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            LOOKUP_CALLBACK = lookup.findStatic(Trampolines.class, "lookup",
+                    MethodType.methodType(FunctionPointer.class, MemorySegment.class));
+            LOG_FAILURE = lookup.findStatic(Trampolines.class, "logFailure",
+                    MethodType.methodType(void.class, Throwable.class, Class.class));
+            FunctionDescriptor _fdesc = FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
+            MethodHandle _handle = lookup.findStatic(Trampolines.class, "unregister",
+                    _fdesc.toMethodType());
+            UNREGISTER_SYM = Linker.nativeLinker().upcallStub(_handle, _fdesc, Arena.global());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new InteropException(e);
+        }
+    }
+
+    private Trampolines() {
+    }
+
+    /**
+     * Register a callback instance in the table.
+     *
+     * @param  callback the callback instance
+     * @return the {@code user_data} pointer to pass to native code, together
+     *         with the trampoline and {@link #UNREGISTER_SYM}
+     */
+    public static MemorySegment register(FunctionPointer callback) {
+        long key = NEXT_KEY.getAndIncrement();
+        long stamp = LOCK.writeLock();
+        try {
+            CALLBACKS.put(key, callback);
+        } finally {
+            LOCK.unlockWrite(stamp);
+        }
+        return MemorySegment.ofAddress(key);
+    }
+
+    /**
+     * Register a callback instance with async scope in the table. It is
+     * removed from the table when it is called.
+     *
+     * @param  callback the callback instance
+     * @return the {@code user_data} pointer to pass to native code, together
+     *         with the trampoline
+     */
+    public static MemorySegment registerAsync(FunctionPointer callback) {
+        long key = NEXT_KEY.getAndIncrement();
+        long stamp = LOCK.writeLock();
+        try {
+            ASYNC_CALLBACKS.put(key, callback);
+        } finally {
+            LOCK.unlockWrite(stamp);
+        }
+        return MemorySegment.ofAddress(key);
+    }
+
+    /**
+     * This is called by native code when it runs the DestroyNotify callback.
+     * It will remove the callback instance from the table.
+     *
+     * @param userData the {@code user_data} pointer of the callback instance
+     */
+    public static void unregister(MemorySegment userData) {
+        long stamp = LOCK.writeLock();
+        try {
+            CALLBACKS.remove(userData.address());
+        } finally {
+            LOCK.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get the number of registered callback instances.
+     *
+     * @return the number of callback instances in the table
+     */
+    public static int size() {
+        long stamp = LOCK.readLock();
+        try {
+            return CALLBACKS.size() + ASYNC_CALLBACKS.size();
+        } finally {
+            LOCK.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the trampoline for a signal callback type. The trampoline is created
+     * on first use.
+     * <p>
+     * The native function signature of the trampoline is the provided
+     * function descriptor with an additional trailing {@code user_data}
+     * pointer. The trampoline calls the upcall method of the callback
+     * instance that was registered with that {@code user_data} pointer.
+     *
+     * @param  lookup     a lookup object with access to the callback type
+     * @param  type       the callback type
+     * @param  name       the name of the upcall method
+     * @param  descriptor supplies the function descriptor of the upcall
+     *                    method (without the {@code user_data} pointer)
+     * @return the trampoline
+     */
+    public static MemorySegment trampoline(MethodHandles.Lookup lookup,
+                                           Class<? extends FunctionPointer> type,
+                                           String name,
+                                           Supplier<FunctionDescriptor> descriptor) {
+        MemorySegment trampoline = TRAMPOLINES.get(type);
+        if (trampoline != null)
+            return trampoline;
+
+        return TRAMPOLINES.computeIfAbsent(type, _ -> {
+            FunctionDescriptor fdesc = descriptor.get();
+            MethodHandle upcall = Interop.upcallHandle(lookup, type, name, fdesc);
+
+            // (T, args...) -> (MemorySegment userData, args...)
+            MethodHandle handle = MethodHandles.filterArguments(upcall, 0,
+                    LOOKUP_CALLBACK.asType(MethodType.methodType(type, MemorySegment.class)));
+
+            // (MemorySegment userData, args...) -> (args..., MemorySegment userData)
+            int count = fdesc.argumentLayouts().size();
+            int[] reorder = new int[count + 1];
+            reorder[0] = count;
+            for (int i = 1; i <= count; i++)
+                reorder[i] = i - 1;
+            MethodType methodType = fdesc.toMethodType().appendParameterTypes(MemorySegment.class);
+            handle = MethodHandles.permuteArguments(handle, methodType, reorder);
+
+            return Linker.nativeLinker().upcallStub(guard(handle, type),
+                    fdesc.appendArgumentLayouts(ValueLayout.ADDRESS), Arena.global());
+        });
+    }
+
+    /**
+     * Get the trampoline for a callback type with a {@code user_data}
+     * parameter. The trampoline is created on first use.
+     * <p>
+     * The native function signature of the trampoline is the provided
+     * function descriptor. The trampoline calls the upcall method of the
+     * callback instance that was registered with the pointer in the
+     * {@code user_data} parameter.
+     *
+     * @param  lookup     a lookup object with access to the callback type
+     * @param  type       the callback type
+     * @param  name       the name of the upcall method
+     * @param  userData   the index of the {@code user_data} parameter
+     * @param  descriptor supplies the function descriptor of the upcall
+     *                    method
+     * @return the trampoline
+     */
+    public static MemorySegment trampoline(MethodHandles.Lookup lookup,
+                                           Class<? extends FunctionPointer> type,
+                                           String name,
+                                           int userData,
+                                           Supplier<FunctionDescriptor> descriptor) {
+        MemorySegment trampoline = TRAMPOLINES.get(type);
+        if (trampoline != null)
+            return trampoline;
+
+        return TRAMPOLINES.computeIfAbsent(type, _ -> {
+            FunctionDescriptor fdesc = descriptor.get();
+            MethodHandle upcall = Interop.upcallHandle(lookup, type, name, fdesc);
+
+            // (args...) -> T, using the user_data argument
+            List<Class<?>> leading = fdesc.toMethodType().parameterList().subList(0, userData);
+            MethodHandle callback = MethodHandles.dropArguments(
+                    LOOKUP_CALLBACK.asType(MethodType.methodType(type, MemorySegment.class)),
+                    0, leading);
+
+            // (T, args...) -> (args...)
+            MethodHandle handle = MethodHandles.foldArguments(upcall, 0, callback);
+
+            return Linker.nativeLinker().upcallStub(guard(handle, type), fdesc, Arena.global());
+        });
+    }
+
+    /*
+     * Catch exceptions that are thrown by the trampoline outside the upcall
+     * method (for example when no callback is registered), and return a zero
+     * value, because an exception in an upcall would crash the JVM.
+     */
+    private static MethodHandle guard(MethodHandle handle, Class<?> type) {
+        MethodType methodType = handle.type();
+
+        // (Throwable) -> zero value
+        MethodHandle handler = MethodHandles.collectArguments(
+                MethodHandles.zero(methodType.returnType()), 0,
+                MethodHandles.insertArguments(LOG_FAILURE, 1, type));
+
+        // (Throwable, args...) -> zero value
+        handler = MethodHandles.dropArguments(handler, 1, methodType.parameterList());
+        return MethodHandles.catchException(handle, Throwable.class, handler);
+    }
+
+    // Retrieve the registered callback instance for the user_data pointer
+    private static FunctionPointer lookup(MemorySegment userData) {
+        long key = userData.address();
+        long stamp = LOCK.tryOptimisticRead();
+        FunctionPointer callback = CALLBACKS.get(key);
+        if (!LOCK.validate(stamp)) {
+            stamp = LOCK.readLock();
+            try {
+                callback = CALLBACKS.get(key);
+            } finally {
+                LOCK.unlockRead(stamp);
+            }
+        }
+        if (callback == null)
+            callback = removeAsync(key);
+        if (callback == null)
+            throw new IllegalStateException("No callback registered for user_data " + key);
+        return callback;
+    }
+
+    private static @Nullable FunctionPointer removeAsync(long key) {
+        long stamp = LOCK.writeLock();
+        try {
+            return ASYNC_CALLBACKS.remove(key);
+        } finally {
+            LOCK.unlockWrite(stamp);
+        }
+    }
+
+    private static void logFailure(Throwable err, Class<?> type) {
+        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                "Cannot call %s callback: %s\n", type.getName(), err.toString());
+    }
+}
@@ -30,16 +30,26 @@ import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static java.util.Objects.requireNonNullElse;
 import static org.javagi.interop.Interop.*;
 
 /**
  * Generate a MethodHandle for a variadic function.
+ * <p>
+ * Linking a downcall handle is much more expensive than calling it, so the
+ * linked handles are cached per vararg signature (the promoted layouts of the
+ * variadic arguments). Calls with up to {@value #MAX_FAST_VARARGS} variadic
+ * arguments use a pre-spread handle that is invoked directly, without
+ * flattening the arguments into a new array.
  */
 @NullMarked
-record VarargsInvoker(MemorySegment symbol, FunctionDescriptor fdesc) {
+final class VarargsInvoker {
 
     private static final MethodHandle METHOD_HANDLE;
     static {
@@ -52,6 +62,41 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor fdesc) {
         }
     }
 
+    // The promoted layouts of variadic arguments. The index in this array is
+    // used to encode a vararg signature for the fast path, with two bits for
+    // every vararg.
+    private static final MemoryLayout[] VARIADIC_LAYOUTS = {
+            ValueLayout.JAVA_INT,
+            ValueLayout.JAVA_LONG,
+            ValueLayout.JAVA_DOUBLE,
+            ValueLayout.ADDRESS
+    };
+
+    // Calls with up to this number of varargs use the fast path
+    private static final int MAX_FAST_VARARGS = 4;
+
+    // Number of possible vararg signatures with 0 to MAX_FAST_VARARGS varargs:
+    // 4^0 + 4^1 + 4^2 + 4^3 + 4^4
+    private static final int FAST_HANDLES_SIZE = 341;
+
+    private final MemorySegment symbol;
+    private final FunctionDescriptor fdesc;
+
+    // Handles of type (Object[] args, Object... varargs)Object, indexed by
+    // the encoded vararg signature
+    private final AtomicReferenceArray<MethodHandle> fastHandles =
+            new AtomicReferenceArray<>(FAST_HANDLES_SIZE);
+
+    // Spreader handles of type (Object[])Object, for calls with more than
+    // MAX_FAST_VARARGS varargs
+    private final Map<List<MemoryLayout>, MethodHandle> handles =
+            new ConcurrentHashMap<>();
+
+    private VarargsInvoker(MemorySegment symbol, FunctionDescriptor fdesc) {
+        this.symbol = symbol;
+        this.fdesc = fdesc;
+    }
+
     /**
      * Create a MethodHandle with the base parameters and a placeholder for the
      * varargs.
@@ -89,7 +134,7 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor fdesc) {
      * Invoked by METHOD_HANDLE.
      */
     @SuppressWarnings("unused")
-    private Object invoke(@Nullable Object[] args) throws Throwable {
+    private @Nullable Object invoke(@Nullable Object[] args) throws Throwable {
         if (args.length < 1)
             throw new IllegalArgumentException("Missing vararg collector argument");
 
@@ -98,74 +143,149 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor fdesc) {
         if (varargs == null)
             throw new IllegalArgumentException("Vararg collector argument is null");
 
-        // number of fixed and variable arguments
-        int nNamedArgs = fdesc.argumentLayouts().size();
-        int nVarargs = varargs.length;
-
-        // create array of memory layouts
-        int argsCount = nNamedArgs + nVarargs;
-        MemoryLayout[] argLayouts = new MemoryLayout[argsCount];
-
-        // Fill in the named memory layouts
-        int pos;
-        for (pos = 0; pos < nNamedArgs; pos++)
-            argLayouts[pos] = fdesc.argumentLayouts().get(pos);
-
         /*
          * Create a memory allocation arena for marshaling Java arrays to native
          * arrays. The memory will be deallocated immediately after the function
          * call returned.
          */
         try (var arena = Arena.ofConfined()) {
+            return switch (varargs.length) {
+                case 0 -> (Object) fastHandle(0, 0)
+                        .invokeExact(args);
+                case 1 -> {
+                    Object v0 = marshalArgument(varargs[0], arena);
+                    yield (Object) fastHandle(1, code(v0))
+                            .invokeExact(args, v0);
+                }
+                case 2 -> {
+                    Object v0 = marshalArgument(varargs[0], arena);
+                    Object v1 = marshalArgument(varargs[1], arena);
+                    yield (Object) fastHandle(2, code(v0) | code(v1) << 2)
+                            .invokeExact(args, v0, v1);
+                }
+                case 3 -> {
+                    Object v0 = marshalArgument(varargs[0], arena);
+                    Object v1 = marshalArgument(varargs[1], arena);
+                    Object v2 = marshalArgument(varargs[2], arena);
+                    yield (Object) fastHandle(3, code(v0) | code(v1) << 2 | code(v2) << 4)
+                            .invokeExact(args, v0, v1, v2);
+                }
+                case 4 -> {
+                    Object v0 = marshalArgument(varargs[0], arena);
+                    Object v1 = marshalArgument(varargs[1], arena);
+                    Object v2 = marshalArgument(varargs[2], arena);
+                    Object v3 = marshalArgument(varargs[3], arena);
+                    yield (Object) fastHandle(4, code(v0) | code(v1) << 2 | code(v2) << 4 | code(v3) << 6)
+                            .invokeExact(args, v0, v1, v2, v3);
+                }
+                default -> invokeSpread(args, varargs, arena);
+            };
+        }
+    }
+
+    /*
+     * Slow path for calls with more than MAX_FAST_VARARGS varargs: flatten the
+     * fixed and variadic arguments in one array and invoke a spreader handle.
+     */
+    private @Nullable Object invokeSpread(@Nullable Object[] args,
+                                          @Nullable Object[] varargs,
+                                          Arena arena) throws Throwable {
+        int nNamedArgs = fdesc.argumentLayouts().size();
+        int nVarargs = varargs.length;
 
-            // Marshal the Java-GI types to a pointer or primitive value
-            Object[] marshaledVarargs = new Object[nVarargs];
-            for (int i = 0; i < nVarargs; i++)
-                marshaledVarargs[i] = marshalArgument(varargs[i], arena);
-
-            // Fill in the varargs memory layouts
-            for (Object o : marshaledVarargs) {
-                argLayouts[pos] = variadicLayout(o.getClass());
-                pos++;
-            }
-
-            // Create the function descriptor
-            FunctionDescriptor f = fdesc.returnLayout().map(
-                    layout -> FunctionDescriptor.of(layout, argLayouts)).orElseGet(
-                    ()     -> FunctionDescriptor.ofVoid(argLayouts));
-            Linker.Option fva = Linker.Option.firstVariadicArg(nNamedArgs);
-            MethodHandle mh = Interop.downcallHandle(symbol, f, fva);
-
-            // Flatten the fixed and variadic arguments in one array
-            Object[] allArgs = new Object[argsCount];
-            System.arraycopy(args, 0, allArgs, 0, nNamedArgs);
-            System.arraycopy(marshaledVarargs, 0, allArgs, nNamedArgs, nVarargs);
-
-            // Create a handle that spreads the array into positional arguments
-            var spreader = mh.asSpreader(Object[].class, argsCount);
-
-            // Invoke the handle
-            return spreader.invoke(allArgs);
+        // Marshal the Java-GI types to a pointer or primitive value, and
+        // collect the promoted memory layouts
+        Object[] allArgs = new Object[nNamedArgs + nVarargs];
+        MemoryLayout[] varargLayouts = new MemoryLayout[nVarargs];
+        System.arraycopy(args, 0, allArgs, 0, nNamedArgs);
+        for (int i = 0; i < nVarargs; i++) {
+            Object o = marshalArgument(varargs[i], arena);
+            allArgs[nNamedArgs + i] = o;
+            varargLayouts[i] = VARIADIC_LAYOUTS[variadicLayoutIndex(o.getClass())];
         }
+
+        MethodHandle spreader = handles.computeIfAbsent(List.of(varargLayouts), layouts ->
+                link(layouts).asSpreader(Object[].class, allArgs.length));
+        return spreader.invokeExact(allArgs);
+    }
+
+    /*
+     * Get the encoded layout of a marshaled vararg, for the vararg signature.
+     */
+    private static int code(Object marshaledVararg) {
+        return variadicLayoutIndex(marshaledVararg.getClass());
+    }
+
+    /*
+     * Get the cached handle for the vararg signature, or link and cache a new
+     * one. The signature contains the codes of the marshaled varargs, two
+     * bits each, so it is computed without allocating. The handle has type
+     * (Object[] args, Object... varargs)Object, where the first argument is
+     * the array of fixed arguments, followed by the vararg collector (which
+     * is ignored).
+     */
+    private MethodHandle fastHandle(int nVarargs, int signature) {
+        int index = (1 << (2 * nVarargs)) / 3 + signature; // offset for this arity
+        MethodHandle handle = fastHandles.get(index);
+        if (handle != null)
+            return handle;
+
+        MemoryLayout[] layouts = new MemoryLayout[nVarargs];
+        for (int i = 0; i < layouts.length; i++)
+            layouts[i] = VARIADIC_LAYOUTS[(signature >>> (2 * i)) & 3];
+
+        int nNamedArgs = fdesc.argumentLayouts().size();
+        handle = link(List.of(layouts));
+
+        // Insert a dummy parameter for the vararg collector, and spread the
+        // fixed arguments (and the vararg collector) from the args array
+        handle = MethodHandles.dropArguments(handle, nNamedArgs, Object.class)
+                .asSpreader(0, Object[].class, nNamedArgs + 1);
+
+        return fastHandles.compareAndSet(index, null, handle)
+                ? handle
+                : fastHandles.get(index);
+    }
+
+    /*
+     * Link a downcall handle for the provided vararg layouts. The returned
+     * handle has a generic (Object...)Object type.
+     */
+    private MethodHandle link(List<MemoryLayout> varargLayouts) {
+        int nNamedArgs = fdesc.argumentLayouts().size();
+        MemoryLayout[] argLayouts = new MemoryLayout[nNamedArgs + varargLayouts.size()];
+        for (int i = 0; i < nNamedArgs; i++)
+            argLayouts[i] = fdesc.argumentLayouts().get(i);
+        for (int i = 0; i < varargLayouts.size(); i++)
+            argLayouts[nNamedArgs + i] = varargLayouts.get(i);
+
+        // Create the function descriptor
+        FunctionDescriptor f = fdesc.returnLayout().map(
+                layout -> FunctionDescriptor.of(layout, argLayouts)).orElseGet(
+                ()     -> FunctionDescriptor.ofVoid(argLayouts));
+        Linker.Option fva = Linker.Option.firstVariadicArg(nNamedArgs);
+        MethodHandle mh = Interop.downcallHandle(symbol, f, fva);
+        return mh.asType(MethodType.genericMethodType(argLayouts.length));
     }
 
     /*
      * Apply default argument promotions per C spec. Note that all primitives
-     * are boxed, since they are passed through an Object[].
+     * are boxed, since they are passed through an Object[]. Returns the index
+     * of the promoted layout in VARIADIC_LAYOUTS.
      */
-    private static MemoryLayout variadicLayout(Class<?> c) {
+    private static int variadicLayoutIndex(Class<?> c) {
         if (c == Boolean.class || c == Byte.class || c == Character.class
                 || c == Short.class || c == Integer.class)
-            return ValueLayout.JAVA_INT;
+            return 0; // JAVA_INT
 
         if (c == Long.class)
-            return ValueLayout.JAVA_LONG;
+            return 1; // JAVA_LONG
 
         if (c == Float.class || c == Double.class)
-            return ValueLayout.JAVA_DOUBLE;
+            return 2; // JAVA_DOUBLE
 
         if (MemorySegment.class.isAssignableFrom(c))
-            return ValueLayout.ADDRESS;
+            return 3; // ADDRESS
 
         throw new InteropException("Unsupported variadic argument type: " + c.getTypeName());
     }
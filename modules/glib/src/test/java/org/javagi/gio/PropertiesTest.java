@@ -52,6 +52,22 @@ public class PropertiesTest {
         assertEquals("my.example.Application", applicationId);
     }
 
+    @Test
+    public void repeatedPropertyAccess() {
+        Application app1 = new Application("javagi.test.Application1");
+        Application app2 = new Application("javagi.test.Application2");
+
+        // The second access of each property uses the cached metadata
+        for (int i = 0; i < 2; i++) {
+            app1.setProperty("flags", Set.of(ApplicationFlags.IS_SERVICE));
+            assertEquals(Set.of(ApplicationFlags.IS_SERVICE), Properties.getProperty(app1, "flags"));
+            assertEquals("javagi.test.Application2", Properties.getProperty(app2, "application-id"));
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Properties.getProperty(app1, "no-such-property"));
+    }
+
     @Test
     public void newGObjectWithProperties() {
         Application app = GObject.newInstance(Application.class,
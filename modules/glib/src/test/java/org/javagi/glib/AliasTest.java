@@ -0,0 +1,34 @@
+package org.javagi.glib;
+
+import org.gnome.glib.GLib;
+import org.gnome.glib.Quark;
+import org.gnome.glib.Type;
+import org.javagi.gobject.types.Types;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test aliases for primitive values
+ */
+public class AliasTest {
+
+    @Test
+    void testLongAlias() {
+        Type type = new Type(Types.STRING.longValue());
+        assertEquals(Types.STRING, type);
+        assertEquals(Types.STRING.hashCode(), type.hashCode());
+        assertEquals(Long.valueOf(type.longValue()), type.getValue());
+
+        type.setValue(Types.INT.longValue());
+        assertEquals(Types.INT, type);
+        assertNotEquals(Types.STRING, type);
+    }
+
+    @Test
+    void testIntAlias() {
+        Quark quark = GLib.quarkFromString("java-gi-alias-test");
+        assertEquals(quark, GLib.quarkFromString("java-gi-alias-test"));
+        assertEquals("java-gi-alias-test", GLib.quarkToString(new Quark(quark.intValue())));
+    }
+}
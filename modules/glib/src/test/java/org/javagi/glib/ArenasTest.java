@@ -0,0 +1,75 @@
+package org.javagi.glib;
+
+import org.javagi.interop.Arenas;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Register and close callback arenas from multiple threads concurrently
+ */
+public class ArenasTest {
+
+    @Test
+    void concurrentRegistration() throws Exception {
+        int threads = 8;
+        int iterations = 10_000;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        Arena arena = Arenas.ofCallback();
+                        arena.allocate(16);
+                        var data = Arenas.cacheArena(arena);
+
+                        // The DestroyNotify callback can run before or after
+                        // the native function returns
+                        if (i % 2 == 0) {
+                            Arenas.readyToClose(arena);
+                            Arenas.close_cb(data);
+                        } else {
+                            Arenas.close_cb(data);
+                            Arenas.readyToClose(arena);
+                        }
+                        assertThrows(IllegalStateException.class, () -> arena.allocate(16));
+                    }
+                }));
+            }
+            for (var future : futures)
+                future.get();
+        }
+        assertEquals(0, Arenas.size());
+    }
+
+    @Test
+    void independentCallbackArenas() {
+        // A long-lived callback arena doesn't share its memory with other
+        // callback arenas
+        Arena longLived = Arenas.ofCallback();
+        Arena shortLived = Arenas.ofCallback();
+        assertNotEquals(longLived.scope(), shortLived.scope());
+
+        var data = Arenas.cacheArena(shortLived);
+        Arenas.readyToClose(shortLived);
+        Arenas.close_cb(data);
+        assertThrows(IllegalStateException.class, () -> shortLived.allocate(16));
+        longLived.allocate(16);
+    }
+
+    @Test
+    void otherArena() {
+        Arena arena = Arena.ofShared();
+        var data = Arenas.cacheArena(arena);
+        Arenas.close_cb(data);
+        assertTrue(arena.scope().isAlive());
+        Arenas.readyToClose(arena);
+        assertFalse(arena.scope().isAlive());
+    }
+}
@@ -23,10 +23,14 @@ import org.gnome.glib.ChecksumType;
 import org.gnome.glib.GLib;
 import org.javagi.base.GErrorException;
 import org.gnome.glib.KeyFile;
+import org.javagi.interop.Interop;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class BytesTest {
 
@@ -49,4 +53,22 @@ public class BytesTest {
         assertTrue(success);
         assertEquals("MyGroup", keyFile.getStartGroup());
     }
+
+    @Test
+    public void testGBytesSegment() {
+        byte[] data = "abcd".getBytes();
+        var bytes = Interop.toGBytes(Arena.ofAuto().allocateFrom(JAVA_BYTE, data));
+        var view = Interop.fromGBytesSegment(bytes);
+        Interop.freeGBytes(bytes);
+
+        // The view keeps a reference to the GBytes
+        assertNotNull(view);
+        assertTrue(view.isReadOnly());
+        assertArrayEquals(data, view.toArray(JAVA_BYTE));
+
+        // A heap segment is copied
+        var copy = Interop.toGBytes(MemorySegment.ofArray(data));
+        assertArrayEquals(data, Interop.fromGBytes(copy));
+        Interop.freeGBytes(copy);
+    }
 }
@@ -2,12 +2,16 @@ package org.javagi.glib;
 
 import org.javagi.interop.Interop;
 import org.gnome.glib.AsciiType;
+import org.gnome.glib.Regex;
+import org.gnome.glib.RegexCompileFlags;
 import org.junit.jupiter.api.Test;
 
 import java.util.Set;
 
 import static org.gnome.glib.AsciiType.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test conversion of int to EnumSet and back
@@ -22,4 +26,20 @@ public class FlagsTest {
         int output = Interop.enumSetToInt(set);
         assertEquals(input, output);
     }
+
+    @Test
+    void testIntMask() {
+        int input = 1 + 4 + (1 << 20); // undefined bits are ignored
+        assertEquals(Set.of(ALNUM, CNTRL), AsciiType.of(input));
+        assertEquals(1 + 4, AsciiType.toInt(Set.of(ALNUM, CNTRL)));
+        assertTrue(CNTRL.isSetIn(input));
+        assertFalse(DIGIT.isSetIn(input));
+    }
+
+    @Test
+    void testIntMaskOverload() {
+        // Pass the flags as int masks, without creating a Set
+        assertTrue(Regex.matchSimple("^A", "abc", RegexCompileFlags.CASELESS.getValue(), 0));
+        assertFalse(Regex.matchSimple("^A", "abc", 0, 0));
+    }
 }
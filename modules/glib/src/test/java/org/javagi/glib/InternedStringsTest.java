@@ -0,0 +1,21 @@
+package org.javagi.glib;
+
+import org.javagi.interop.Interop;
+import org.javagi.interop.InternedStrings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the cache of native strings
+ */
+public class InternedStringsTest {
+
+    @Test
+    void internString() {
+        var segment = InternedStrings.get("interned-string");
+        assertEquals("interned-string", Interop.getString(segment));
+        assertSame(segment, InternedStrings.get("interned-string"));
+        assertNotSame(segment, InternedStrings.get("another-string"));
+    }
+}
@@ -0,0 +1,58 @@
+package org.javagi.glib;
+
+import org.javagi.interop.LongTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the hash table with primitive long keys
+ */
+public class LongTableTest {
+
+    @Test
+    void putGetRemove() {
+        var table = new LongTable<String>();
+        int count = 10_000;
+        for (long i = 1; i <= count; i++)
+            assertNull(table.put(i * 16, "value" + i));
+        assertEquals(count, table.size());
+        assertEquals("value1", table.putIfAbsent(16, "other"));
+        assertEquals("value1", table.put(16, "other"));
+        assertEquals("other", table.get(16));
+        assertEquals(count, table.size());
+
+        // Remove every other entry, the rest must still be found
+        for (long i = 1; i <= count; i += 2)
+            assertNotNull(table.remove(i * 16));
+        for (long i = 1; i <= count; i++)
+            assertEquals(i % 2 == 0 ? "value" + i : null, table.get(i * 16));
+        assertEquals(count / 2, table.size());
+
+        // Conditional remove
+        assertNull(table.remove(32, "other"));
+        assertEquals("value2", table.remove(32, "value2"));
+        assertNull(table.get(32));
+    }
+
+    @Test
+    void copy() {
+        var table = new LongTable<String>(4);
+        table.put(1, "one");
+        var copy = table.copy();
+        copy.put(2, "two");
+        copy.remove(1);
+        assertEquals("one", table.get(1));
+        assertNull(table.get(2));
+        assertEquals(1, table.size());
+        assertEquals("two", copy.get(2));
+        assertEquals(1, copy.size());
+    }
+
+    @Test
+    void invalidKey() {
+        var table = new LongTable<String>();
+        assertThrows(IllegalArgumentException.class, () -> table.put(0, "zero"));
+        assertThrows(IllegalArgumentException.class, () -> new LongTable<String>(3));
+    }
+}
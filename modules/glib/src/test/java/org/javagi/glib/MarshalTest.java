@@ -28,11 +28,14 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.Arrays;
 import java.util.Set;
 
 import static org.javagi.base.TransferOwnership.NONE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -151,6 +154,26 @@ public class MarshalTest {
         }
     }
 
+    @Test
+    void testIntArrayIntoDestination() {
+        try (Arena arena = Arena.ofConfined()) {
+            int[] input = {1, 2, 3, Integer.MIN_VALUE, Integer.MAX_VALUE};
+            MemorySegment allocation = Interop.allocate(input, true, arena);
+            assertEquals(0, allocation.getAtIndex(ValueLayout.JAVA_INT, input.length));
+
+            int[] destination = new int[8];
+            assertEquals(input.length, Interop.getIntegerArray(allocation, input.length, NONE, destination));
+            assertArrayEquals(input, Arrays.copyOf(destination, input.length));
+            assertEquals(-1, Interop.getIntegerArray(MemorySegment.NULL, input.length, NONE, destination));
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> Interop.getIntegerArray(allocation, input.length, NONE, new int[2]));
+
+            MemorySegment slice = arena.allocate(ValueLayout.JAVA_INT, 10).asSlice(8);
+            Interop.copyArray(allocation, ValueLayout.JAVA_INT, input.length, NONE, slice);
+            assertArrayEquals(input, slice.asSlice(0, input.length * 4L).toArray(ValueLayout.JAVA_INT));
+        }
+    }
+
     @Test
     void testLongArray() {
         try (Arena arena = Arena.ofConfined()) {
@@ -0,0 +1,60 @@
+package org.javagi.glib;
+
+import org.gnome.glib.ByteArray;
+import org.javagi.interop.MemoryCleaner;
+import org.javagi.interop.Reclaimer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocate and free owned structs from multiple threads concurrently
+ */
+public class MemoryCleanerTest {
+
+    @Test
+    void concurrentAllocation() throws Exception {
+        int threads = 8;
+        int iterations = 10_000;
+        long before = Reclaimer.statistics().freed();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        var array = new ByteArray();
+                        count += array.readLen() + 1;
+
+                        // Free every other array explicitly, leave the rest
+                        // for the garbage collector
+                        if (i % 2 == 0)
+                            MemoryCleaner.free(array.handle());
+                    }
+                    return count;
+                }));
+            }
+            for (var future : futures)
+                assertEquals(iterations, future.get());
+        }
+        System.gc();
+
+        // Free the queued addresses on this thread. The reclaimer thread can
+        // be freeing a batch at the same time, so wait until it is done.
+        long expected = before + (long) threads * iterations / 2;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        do {
+            Reclaimer.flush();
+        } while (Reclaimer.statistics().freed() < expected && System.nanoTime() < deadline);
+
+        // At least the explicitly freed arrays have been released
+        assertTrue(Reclaimer.statistics().freed() >= expected);
+    }
+}
@@ -1,5 +1,6 @@
 package org.javagi.glib;
 
+import org.gnome.glib.GLib;
 import org.javagi.interop.Interop;
 import org.junit.jupiter.api.Test;
 
@@ -11,7 +12,8 @@ import java.lang.invoke.MethodHandle;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Test what happens when a function is called that does not exist.
+ * Test what happens when a function is called that does not exist, and test
+ * lazily linked method handles.
  */
 public class MethodHandleTest {
 
@@ -29,4 +31,26 @@ public class MethodHandleTest {
             assertEquals("Cannot find function '" + name + "'", uoe.getMessage());
         }
     }
+
+    @Test
+    void nonExistentFunctionLazy() {
+        String name = "foo_bar_baz";
+        FunctionDescriptor fdesc = FunctionDescriptor.ofVoid(ValueLayout.JAVA_INT, ValueLayout.ADDRESS);
+        MethodHandle mh = Interop.lazyDowncallHandle(name, fdesc, false);
+        var uoe = assertThrows(UnsupportedOperationException.class,
+                () -> mh.invokeExact(1, MemorySegment.NULL));
+        assertEquals("Cannot find function '" + name + "'", uoe.getMessage());
+    }
+
+    @Test
+    void lazyFunction() throws Throwable {
+        GLib.javagi$ensureInitialized();
+        FunctionDescriptor fdesc = FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_BYTE);
+        MethodHandle mh = Interop.lazyDowncallHandle("g_ascii_digit_value", fdesc, false);
+
+        // The first call links the function, the second call uses the
+        // linked handle
+        assertEquals(7, (int) mh.invokeExact((byte) '7'));
+        assertEquals(3, (int) mh.invokeExact((byte) '3'));
+    }
 }
@@ -0,0 +1,32 @@
+package org.javagi.glib;
+
+import org.javagi.interop.Reclaimer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Run queued actions in the default main context
+ */
+public class ReclaimerTest {
+
+    @Test
+    void invokeInMainContext() {
+        var before = Reclaimer.statistics();
+        var counter = new AtomicInteger();
+        for (int i = 0; i < 1000; i++)
+            Reclaimer.invokeInMainContext(MemorySegment.NULL, _ -> counter.incrementAndGet());
+
+        // No main loop is running, so the actions are run immediately
+        assertEquals(1000, counter.get());
+
+        var after = Reclaimer.statistics();
+        assertEquals(0, after.queued());
+        assertTrue(after.completed() - before.completed() >= 1000);
+        assertTrue(after.drains() > before.drains());
+        assertFalse(after.maxLatency().isNegative());
+    }
+}
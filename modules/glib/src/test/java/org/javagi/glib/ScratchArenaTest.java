@@ -0,0 +1,75 @@
+package org.javagi.glib;
+
+import org.javagi.interop.Interop;
+import org.javagi.interop.ScratchArena;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test nested allocations in per-thread scratch arenas
+ */
+public class ScratchArenaTest {
+
+    @Test
+    void nestedArenas() {
+        Arena closed;
+        try (var outer = ScratchArena.open()) {
+            closed = outer;
+            var outerSegment = Interop.allocate("outer", outer);
+            try (var inner = ScratchArena.open()) {
+                var innerSegment = Interop.allocate("inner", inner);
+                assertNotEquals(outerSegment.address(), innerSegment.address());
+                assertEquals("inner", Interop.getString(innerSegment));
+            }
+
+            // Memory of the closed inner arena is reused
+            try (var inner = ScratchArena.open()) {
+                var segment = inner.allocate(JAVA_LONG);
+                assertEquals(0, segment.get(JAVA_LONG, 0));
+                assertEquals(0, segment.address() % JAVA_LONG.byteAlignment());
+            }
+            assertEquals("outer", Interop.getString(outerSegment));
+        }
+        assertThrows(IllegalStateException.class, () -> closed.allocate(16));
+    }
+
+    @Test
+    void reuseAcrossOpens() {
+        long address;
+        try (var arena = ScratchArena.open()) {
+            address = arena.allocate(JAVA_LONG).address();
+        }
+
+        // The next scratch arena allocates the same memory
+        for (int i = 0; i < 10; i++) {
+            try (var arena = ScratchArena.open()) {
+                assertEquals(address, arena.allocate(JAVA_LONG).address());
+            }
+        }
+    }
+
+    @Test
+    void scopeIsClosed() {
+        MemorySegment segment;
+        try (var arena = ScratchArena.open()) {
+            // Attach a segment to the scope of the scratch arena
+            segment = arena.allocate(JAVA_LONG).reinterpret(arena, null);
+            assertTrue(segment.scope().isAlive());
+        }
+        assertFalse(segment.scope().isAlive());
+    }
+
+    @Test
+    void largeAllocation() {
+        try (var arena = ScratchArena.open()) {
+            var segment = arena.allocate(1024 * 1024);
+            assertEquals(1024 * 1024, segment.byteSize());
+            assertTrue(segment.scope().isAlive());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.javagi.glib;
+
+import org.gnome.glib.Date;
+import org.javagi.interop.SlabAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test allocating structs in slabs
+ */
+public class SlabAllocatorTest {
+
+    @Test
+    void allocate() {
+        var layout = MemoryLayout.structLayout(JAVA_LONG, JAVA_INT, JAVA_INT);
+        for (int i = 0; i < 1000; i++) {
+            var segment = SlabAllocator.allocate(layout);
+            assertEquals(layout.byteSize(), segment.byteSize());
+            assertEquals(0, segment.address() % layout.byteAlignment());
+            assertEquals(0, segment.get(JAVA_LONG, 0));
+            segment.set(JAVA_LONG, 0, i);
+        }
+    }
+
+    @Test
+    void derivedSegments() {
+        // A slice of a struct (for example, an embedded struct) keeps the
+        // slot alive, because it shares its scope
+        var layout = MemoryLayout.structLayout(JAVA_LONG, JAVA_LONG);
+        var segment = SlabAllocator.allocate(layout);
+        var slice = segment.asSlice(8, JAVA_LONG);
+        assertEquals(segment.scope(), slice.scope());
+
+        // Every allocation gets its own slot and scope
+        var other = SlabAllocator.allocate(layout);
+        assertNotEquals(segment.address(), other.address());
+        assertNotEquals(segment.scope(), other.scope());
+    }
+
+    @Test
+    void scopedReuse() {
+        // A size class that isn't used by other tests
+        var layout = MemoryLayout.sequenceLayout(25, JAVA_LONG);
+        MemorySegment segment;
+        long address;
+        try (var arena = SlabAllocator.open()) {
+            segment = arena.allocate(layout);
+            address = segment.address();
+            segment.set(JAVA_LONG, 0, 42);
+        }
+        assertFalse(segment.scope().isAlive());
+
+        // The slot is reused, and zero-initialized
+        try (var arena = SlabAllocator.open()) {
+            var reused = arena.allocate(layout);
+            assertEquals(address, reused.address());
+            assertEquals(0, reused.get(JAVA_LONG, 0));
+        }
+    }
+
+    @Test
+    void largeStruct() {
+        var layout = MemoryLayout.sequenceLayout(100, JAVA_LONG);
+        var segment = SlabAllocator.allocate(layout);
+        assertEquals(layout.byteSize(), segment.byteSize());
+    }
+
+    @Test
+    void allocateContiguous() {
+        var dates = SlabAllocator.allocateContiguous(Date.getMemoryLayout(), 10, Date::new);
+        assertEquals(10, dates.size());
+        long size = Date.getMemoryLayout().byteSize();
+        for (int i = 1; i < dates.size(); i++)
+            assertEquals(dates.get(i - 1).handle().address() + size, dates.get(i).handle().address());
+    }
+}
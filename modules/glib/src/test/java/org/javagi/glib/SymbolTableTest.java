@@ -0,0 +1,36 @@
+package org.javagi.glib;
+
+import org.gnome.glib.GLib;
+import org.javagi.interop.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test resolving symbols with the symbol table
+ */
+public class SymbolTableTest {
+
+    @Test
+    void resolveSymbols() {
+        GLib.javagi$ensureInitialized();
+
+        var symbol = SymbolTable.find("g_free");
+        assertTrue(symbol.isPresent());
+        assertEquals(symbol, SymbolTable.find("g_free"));
+
+        assertTrue(SymbolTable.find("foo_bar_baz").isEmpty());
+        assertTrue(SymbolTable.find("foo_bar_baz").isEmpty());
+    }
+
+    @Test
+    void statistics() {
+        GLib.javagi$ensureInitialized();
+        SymbolTable.find("g_malloc");
+
+        var statistics = SymbolTable.statistics();
+        assertFalse(statistics.isEmpty());
+        assertTrue(statistics.stream().anyMatch(s -> s.resolved() > 0));
+        assertTrue(SymbolTable.report().lines().count() > statistics.size());
+    }
+}
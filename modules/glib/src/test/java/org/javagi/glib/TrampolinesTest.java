@@ -0,0 +1,93 @@
+package org.javagi.glib;
+
+import org.javagi.base.FunctionPointer;
+import org.javagi.interop.Trampolines;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandles;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test dispatching callbacks through a shared trampoline
+ */
+public class TrampolinesTest {
+
+    interface Multiply extends FunctionPointer {
+        int run(int value);
+
+        default int upcall(int value) {
+            return run(value);
+        }
+
+        @Override
+        default MemorySegment toCallback(Arena arena) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    interface Add extends FunctionPointer {
+        int run(int value);
+
+        default int upcall(int value, MemorySegment userData) {
+            return run(value);
+        }
+
+        @Override
+        default MemorySegment toCallback(Arena arena) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    void dispatch() throws Throwable {
+        var fdesc = FunctionDescriptor.of(JAVA_INT, JAVA_INT);
+        var trampoline = Trampolines.trampoline(MethodHandles.lookup(), Multiply.class, "upcall", () -> fdesc);
+        assertEquals(trampoline, Trampolines.trampoline(MethodHandles.lookup(), Multiply.class, "upcall", () -> fdesc));
+
+        var downcall = Linker.nativeLinker().downcallHandle(trampoline, fdesc.appendArgumentLayouts(ADDRESS));
+        int size = Trampolines.size();
+        Multiply times2 = v -> v * 2;
+        Multiply times3 = v -> v * 3;
+        var userData2 = Trampolines.register(times2);
+        var userData3 = Trampolines.register(times3);
+        assertEquals(size + 2, Trampolines.size());
+
+        assertEquals(10, (int) downcall.invokeExact(5, userData2));
+        assertEquals(15, (int) downcall.invokeExact(5, userData3));
+
+        Trampolines.unregister(userData2);
+        Trampolines.unregister(userData3);
+        assertEquals(size, Trampolines.size());
+
+        // Without a registered callback, the trampoline returns zero
+        assertEquals(0, (int) downcall.invokeExact(5, userData2));
+    }
+
+    @Test
+    void dispatchWithUserData() throws Throwable {
+        var fdesc = FunctionDescriptor.of(JAVA_INT, JAVA_INT, ADDRESS);
+        var trampoline = Trampolines.trampoline(MethodHandles.lookup(), Add.class, "upcall", 1, () -> fdesc);
+        var downcall = Linker.nativeLinker().downcallHandle(trampoline, fdesc);
+
+        int size = Trampolines.size();
+        Add plus1 = v -> v + 1;
+        Add plus2 = v -> v + 2;
+        var userData1 = Trampolines.register(plus1);
+        var userData2 = Trampolines.registerAsync(plus2);
+        assertEquals(size + 2, Trampolines.size());
+
+        assertEquals(6, (int) downcall.invokeExact(5, userData1));
+        assertEquals(6, (int) downcall.invokeExact(5, userData1));
+
+        // An async callback is removed from the table when it is called
+        assertEquals(7, (int) downcall.invokeExact(5, userData2));
+        assertEquals(size + 1, Trampolines.size());
+
+        Trampolines.unregister(userData1);
+        assertEquals(size, Trampolines.size());
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -20,4 +21,22 @@ public class VarargsTest {
         var possibleResults = List.of("abc 123 4.56 c", "abc 123 4,56 c");
         assertTrue(possibleResults.contains(str));
     }
+
+    @Test
+    void testManyVarargs() {
+        // More varargs than the fast path supports
+        var str = GLib.strdupPrintf("%s %d %s %d %s %d", "a", 1, "b", 2, "c", 3);
+        assertEquals("a 1 b 2 c 3", str);
+    }
+
+    @Test
+    void testRepeatedVarargs() {
+        // Repeated calls with the same and with different vararg signatures
+        // must not interfere with each other
+        for (int i = 0; i < 3; i++) {
+            assertEquals("x" + i, GLib.strdupPrintf("%s%d", "x", i));
+            assertEquals(i + "x", GLib.strdupPrintf("%d%s", i, "x"));
+            assertEquals("x", GLib.strdupPrintf("x"));
+        }
+    }
 }
@@ -0,0 +1,81 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.javagi.gobject;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the concurrent map with memory addresses as keys
+ */
+public class AddressMapTest {
+
+    @Test
+    void putGetRemove() {
+        var map = new AddressMap<String>();
+        int count = 10_000;
+        for (long i = 1; i <= count; i++)
+            assertNull(map.putIfAbsent(i * 16, "value" + i));
+        assertEquals(count, map.size());
+        assertEquals("value1", map.putIfAbsent(16, "other"));
+
+        // Remove every other entry, the rest must still be found
+        for (long i = 1; i <= count; i += 2)
+            assertEquals("value" + i, map.remove(i * 16));
+        for (long i = 1; i <= count; i++)
+            assertEquals(i % 2 == 0 ? "value" + i : null, map.get(i * 16));
+        assertEquals(count / 2, map.size());
+
+        // Conditional remove
+        assertNull(map.remove(32, "other"));
+        assertEquals("value2", map.remove(32, "value2"));
+        assertFalse(map.containsKey(32));
+    }
+
+    @Test
+    void concurrentUpdates() throws Exception {
+        var map = new AddressMap<Long>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 8; t++) {
+                long offset = t * 1_000_000L;
+                futures.add(executor.submit(() -> {
+                    for (long i = 1; i <= 10_000; i++) {
+                        long key = (offset + i) * 8;
+                        map.putIfAbsent(key, key);
+                        assertEquals(key, map.get(key));
+                        if (i % 3 == 0)
+                            map.remove(key);
+                    }
+                }));
+            }
+            for (var future : futures)
+                future.get();
+        }
+        assertEquals(8 * (10_000 - 3_333), map.size());
+    }
+}
@@ -83,6 +83,24 @@ public class PropertyTest {
         assertEquals(0, dino.getProperty("xyz"));
     }
 
+    @Test
+    void testGetAndSetProperties() {
+        var dino = new Dino();
+
+        // Primitive int and boolean values
+        dino.setProperty("foo", 42);
+        assertEquals(42, dino.getProperty("foo"));
+        assertEquals(42, dino.getFoo());
+        dino.setProperty("bar", true);
+        assertEquals(true, dino.getProperty("bar"));
+        assertTrue(dino.isBar());
+
+        // String value
+        dino.setProperty("baz2", "test");
+        assertEquals("test", dino.getProperty("baz2"));
+        assertEquals("test", dino.readBaz());
+    }
+
     @SuppressWarnings("unused")
     @RegisteredType(name="Dino")
     public static class Dino extends GObject{
@@ -0,0 +1,143 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.javagi.gobject;
+
+import org.gnome.gobject.GObject;
+import org.javagi.gobject.processor.RegistrationProcessor;
+import org.javagi.gobject.types.RegistrationDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compile a class with the annotation processor, and register it with the
+ * generated registration descriptor
+ */
+public class RegistrationProcessorTest {
+
+    private static final String SOURCE = """
+            package test;
+
+            import java.lang.foreign.MemorySegment;
+            import org.gnome.gobject.GObject;
+            import org.javagi.gobject.annotations.*;
+
+            public class Counter extends GObject {
+                public Counter(MemorySegment address) {
+                    super(address);
+                }
+
+                public Counter() {
+                    super();
+                }
+
+                public static boolean initialized = false;
+
+                private int count;
+                private String label;
+
+                @InstanceInit
+                private void init() {
+                    initialized = true;
+                }
+
+                @Property(minimumValue = "0", maximumValue = "100")
+                public int getCount() {
+                    return count;
+                }
+
+                @Property
+                private void setCount(int count) {
+                    this.count = count;
+                }
+
+                public String getLabel() {
+                    return label;
+                }
+
+                public void setLabel(String label) {
+                    this.label = label;
+                }
+
+                @Signal
+                public interface Incremented {
+                    void run(int count);
+                }
+            }
+            """;
+
+    @Test
+    void registerWithDescriptor(@TempDir Path dir) throws Exception {
+        Path source = dir.resolve("test/Counter.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, SOURCE);
+
+        // Compile the class with the annotation processor. When the tests
+        // run on the module path, the java-gi modules are not on the class
+        // path, so both paths are added to the class path of the compiler.
+        String classPath = Stream.of("jdk.module.path", "java.class.path")
+                .map(System::getProperty)
+                .filter(path -> path != null && !path.isEmpty())
+                .collect(Collectors.joining(File.pathSeparator));
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(null, null, null)) {
+            var task = compiler.getTask(null, fileManager, null,
+                    List.of("-d", dir.toString(), "-cp", classPath, "-proc:full"),
+                    null,
+                    fileManager.getJavaFileObjects(source));
+            task.setProcessors(List.of(new RegistrationProcessor()));
+            assertTrue(task.call());
+        }
+        assertTrue(Files.exists(dir.resolve("test/Counter$$Registration.class")));
+
+        try (var loader = new URLClassLoader(new URL[] {dir.toUri().toURL()},
+                                             getClass().getClassLoader())) {
+            Class<?> cls = loader.loadClass("test.Counter");
+
+            var descriptor = RegistrationDescriptor.of(cls);
+            assertNotNull(descriptor);
+            assertEquals(List.of("count", "label"), descriptor.properties().stream()
+                    .map(RegistrationDescriptor.PropertyDescriptor::name)
+                    .toList());
+            assertEquals(1, descriptor.signals().size());
+            assertEquals(1, descriptor.instanceInits().size());
+            assertNull(descriptor.classInit());
+
+            // Register and instantiate the class
+            var counter = (GObject) cls.getConstructor().newInstance();
+            assertTrue(cls.getField("initialized").getBoolean(null));
+            counter.setProperty("count", 42);
+            assertEquals(42, counter.getProperty("count"));
+            counter.setProperty("label", "abc");
+            assertEquals("abc", counter.getProperty("label"));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2026 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.javagi.gobject;
+
+import org.gnome.gio.SimpleAction;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.gnome.gobject.GObjects;
+import org.gnome.gobject.TypeQuery;
+import org.javagi.base.Proxy;
+import org.javagi.gobject.types.TypeCache;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test looking up GTypes and constructors in the TypeCache
+ */
+public class TypeCacheTest {
+
+    @Test
+    void constructorByGType() {
+        var action = new SimpleAction("test", null);
+        var ctor = TypeCache.getConstructor(SimpleAction.getType(), null);
+        assertNotNull(ctor);
+        assertSame(ctor, TypeCache.getConstructor(SimpleAction.getType().longValue(), null));
+        assertSame(ctor, TypeCache.getConstructor(action.handle(), GObject::new));
+    }
+
+    @Test
+    void typeOfClassIsCached() {
+        var type = TypeCache.getType(SimpleAction.class);
+        assertEquals(SimpleAction.getType(), type);
+        assertSame(type, TypeCache.getType(SimpleAction.class));
+    }
+
+    @Test
+    void resolveHierarchy() {
+        // Native types without a Java class: Middle is derived from GObject,
+        // and Leaf is derived from Middle
+        Type middle = registerNativeType(GObject.getType(), "JavaGiTypeCacheMiddle");
+        Type leaf = registerNativeType(middle, "JavaGiTypeCacheLeaf");
+
+        // Middle resolves to the GObject constructor, and for Leaf, nothing
+        // is found
+        TypeCache.resolveHierarchy(GObject.getType());
+        var objectCtor = TypeCache.getConstructor(GObject.getType(), null);
+        assertSame(objectCtor, TypeCache.getConstructor(middle, null));
+        assertNull(TypeCache.getConstructor(leaf, null));
+
+        // The resolved constructor of SimpleAction is not affected
+        var actionCtor = TypeCache.getConstructor(SimpleAction.getType(), null);
+        assertNotNull(actionCtor);
+
+        // Registering a constructor for Middle invalidates the cached
+        // result for Leaf
+        Function<MemorySegment, ? extends Proxy> middleCtor = Middle::new;
+        TypeCache.register(Middle.class, middle, middleCtor, null);
+        assertSame(middleCtor, TypeCache.getConstructor(middle, null));
+        assertSame(middleCtor, TypeCache.getConstructor(leaf, null));
+        assertSame(actionCtor, TypeCache.getConstructor(SimpleAction.getType(), null));
+    }
+
+    private static Type registerNativeType(Type parent, String name) {
+        var query = new TypeQuery();
+        GObjects.typeQuery(parent, query);
+        return GObjects.typeRegisterStaticSimple(parent, name,
+                (short) query.readClassSize(), (typeClass, data) -> {},
+                (short) query.readInstanceSize(), (instance, typeClass) -> {},
+                Set.of());
+    }
+
+    public static class Middle extends GObject {
+        public Middle(MemorySegment address) {
+            super(address);
+        }
+    }
+}
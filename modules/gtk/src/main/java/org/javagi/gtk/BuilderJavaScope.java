@@ -22,6 +22,7 @@ package org.javagi.gtk;
 import org.javagi.base.GErrorException;
 import org.javagi.gtk.annotations.GtkCallback;
 import org.javagi.gobject.JavaClosure;
+import org.javagi.gobject.types.RegistrationDescriptor;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
 import org.gnome.glib.Type;
@@ -115,14 +116,23 @@ public final class BuilderJavaScope extends BuilderCScope
     private Method getMethodForName(Class<?> cls, String functionName)
             throws NoSuchMethodException {
 
-        // Find method with GtkCallback annotation
-        for (Method m : cls.getDeclaredMethods()) {
-            if (m.isAnnotationPresent(GtkCallback.class)) {
-                String name = m.getAnnotation(GtkCallback.class).name();
-                if (functionName.equals(name))
-                    return m;
+        // Find method with GtkCallback annotation in the registration
+        // descriptor, or else with reflection
+        var descriptor = RegistrationDescriptor.of(cls);
+        if (descriptor != null) {
+            Method m = descriptor.templateCallback(functionName);
+            if (m != null)
+                return m;
+        } else {
+            for (Method m : cls.getDeclaredMethods()) {
+                if (m.isAnnotationPresent(GtkCallback.class)) {
+                    String name = m.getAnnotation(GtkCallback.class).name();
+                    if (functionName.equals(name))
+                        return m;
+                }
             }
         }
+
         // Find method using reflection
         return cls.getDeclaredMethod(functionName);
     }
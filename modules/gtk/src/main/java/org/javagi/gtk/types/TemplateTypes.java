@@ -50,10 +50,12 @@ import java.io.*;
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -72,6 +74,22 @@ import static java.util.Objects.requireNonNull;
 @NullMarked
 public class TemplateTypes {
 
+    private static final FunctionDescriptor DISPOSE_FDESC =
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
+
+    /*
+     * A @GtkChild-annotated field: the name of the template child, the type
+     * of the field, and a function that assigns the template child to the
+     * field.
+     */
+    private record TemplateChild(String name, Class<?> type, FieldSetter setter) {
+    }
+
+    @FunctionalInterface
+    private interface FieldSetter {
+        void set(Widget widget, GObject child) throws Exception;
+    }
+
     /**
      * Get the {@code name} parameter of the {@code GtkTemplate} annotation, or
      * if it is not defined, fallback to the {@code name} parameter of the
@@ -126,34 +144,55 @@ public class TemplateTypes {
         return name.isEmpty() ? field.getName() : name;
     }
 
+    /**
+     * Get the {@code GtkChild}-annotated fields from the registration
+     * descriptor of the class, or if there is no descriptor, find them with
+     * reflection.
+     *
+     * @param  cls the class that declares the fields
+     * @return the template children
+     */
+    private static List<TemplateChild> getTemplateChildren(Class<?> cls) {
+        var children = new ArrayList<TemplateChild>();
+        var descriptor = RegistrationDescriptor.of(cls);
+        if (descriptor != null) {
+            for (var child : descriptor.templateChildren()) {
+                VarHandle handle = child.field();
+                children.add(new TemplateChild(child.name(), child.type(),
+                        (widget, object) -> handle.set(widget, object)));
+            }
+        } else {
+            for (Field field : cls.getDeclaredFields()) {
+                if (field.isAnnotationPresent(GtkChild.class))
+                    children.add(new TemplateChild(getChildName(field), field.getType(), field::set));
+            }
+        }
+        return children;
+    }
+
     /**
      * Generate a memory layout for an instance struct.
-     * @param  cls      the class from which the fields will be used to
-     *                  generate the memory layout
+     * @param  cls      the class for which the memory layout is generated
+     * @param  children the template children that are added to the memory
+     *                  layout
      * @return the generated memory layout
      */
-    private static MemoryLayout getTemplateInstanceLayout(Class<?> cls) {
+    private static MemoryLayout getTemplateInstanceLayout(Class<?> cls, List<TemplateChild> children) {
         MemoryLayout parentLayout = getLayout(cls.getSuperclass());
         requireNonNull(parentLayout, "No memory layout for class " + cls);
 
         ArrayList<MemoryLayout> elements = new ArrayList<>();
         long size = add(parentLayout.withName("parent_instance"), elements, 0);
 
-        for (Field field : cls.getDeclaredFields()) {
-            if (field.isAnnotationPresent(GtkChild.class)) {
-
-                // Determine the name of the struct field.
-                String fieldName = getChildName(field);
-
-                // Add the memory layout of the field to the struct.
-                if (GObject.class.isAssignableFrom(field.getType()))
-                    size = add(ValueLayout.ADDRESS.withName(fieldName),
-                               elements, size);
-                else
-                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_ERROR,
-                            "GtkChild field %s of type '%s' is not derived from GObject\n",
-                            fieldName, field.getType().getSimpleName());
-            }
+        for (TemplateChild child : children) {
+            // Add the memory layout of the field to the struct.
+            if (GObject.class.isAssignableFrom(child.type()))
+                size = add(ValueLayout.ADDRESS.withName(child.name()),
+                           elements, size);
+            else
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_ERROR,
+                        "GtkChild field %s of type '%s' is not derived from GObject\n",
+                        child.name(), child.type().getSimpleName());
         }
 
         MemoryLayout[] layouts = elements.toArray(new MemoryLayout[0]);
@@ -193,7 +232,8 @@ public class TemplateTypes {
      * The lambda will be run during class initialization.
      */
     private static <T extends Widget>
-    Consumer<GObject.ObjectClass> getTemplateClassInit(Class<T> cls, MemoryLayout layout) {
+    Consumer<GObject.ObjectClass> getTemplateClassInit(Class<T> cls, MemoryLayout layout,
+                                                       List<TemplateChild> children) {
 
         var annotation = cls.getAnnotation(GtkTemplate.class);
         String ui = annotation.ui();
@@ -255,8 +295,7 @@ public class TemplateTypes {
                     var parent = GObject.ObjectClass.getMemoryLayout();
                     var func = Overrides.lookupVirtualMethodParent(
                                     requireNonNull(object.handle()), parent, "dispose");
-                    var desc = FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
-                    var downcall = Interop.downcallHandle(func, desc);
+                    var downcall = Interop.functionPointerHandle(func, DISPOSE_FDESC);
                     downcall.invokeExact(object.handle());
                 } catch (Throwable _err) {
                     GLib.log(Constants.LOG_DOMAIN, LogLevelFlags.LEVEL_WARNING, _err + " in dispose");
@@ -266,13 +305,10 @@ public class TemplateTypes {
             // Install BuilderJavaScope to call Java signal handler methods
             widgetClass.setTemplateScope(new BuilderJavaScope());
 
-            for (Field field : cls.getDeclaredFields()) {
-                if (field.isAnnotationPresent(GtkChild.class)) {
-                    var name = getChildName(field);
-                    var path = MemoryLayout.PathElement.groupElement(name);
-                    var offset = layout.byteOffset(path);
-                    widgetClass.bindTemplateChildFull(name, false, offset);
-                }
+            for (TemplateChild child : children) {
+                var path = MemoryLayout.PathElement.groupElement(child.name());
+                var offset = layout.byteOffset(path);
+                widgetClass.bindTemplateChildFull(child.name(), false, offset);
             }
         };
     }
@@ -287,7 +323,7 @@ public class TemplateTypes {
      * The lambda will be run during instance initialization.
      */
     private static <T extends Widget>
-    Consumer<T> getTemplateInstanceInit(Class<T> cls) {
+    Consumer<T> getTemplateInstanceInit(Class<T> cls, List<TemplateChild> children) {
 
         return (widget) -> {
             /*
@@ -307,15 +343,13 @@ public class TemplateTypes {
             }
 
             widget.initTemplate();
-            for (Field field : cls.getDeclaredFields()) {
-                if (field.isAnnotationPresent(GtkChild.class)) {
-                    try {
-                        setField(field, widget);
-                    } catch (Exception e) {
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "Cannot get template child %s in class %s: %s\n",
-                                field.getName(), cls.getName(), e.getMessage());
-                    }
+            for (TemplateChild child : children) {
+                try {
+                    setField(child, widget);
+                } catch (Exception e) {
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "Cannot get template child %s in class %s: %s\n",
+                            child.name(), cls.getName(), e.getMessage());
                 }
             }
         };
@@ -324,11 +358,10 @@ public class TemplateTypes {
     /**
      * Assign the widget from the template to the field
      */
-    private static void setField(Field field, Widget widget) throws Exception {
+    private static void setField(TemplateChild child, Widget widget) throws Exception {
         Type gtype = widget.readGClass().readGType();
-        String name = getChildName(field);
-        GObject child = widget.getTemplateChild(gtype, name);
-        field.set(widget, child);
+        GObject object = widget.getTemplateChild(gtype, child.name());
+        child.setter().set(widget, object);
     }
 
     /**
@@ -343,7 +376,8 @@ public class TemplateTypes {
     private static <W extends Widget> Type registerTemplate(Class<W> cls) {
         try {
             String name = getName(cls);
-            MemoryLayout instanceLayout = getTemplateInstanceLayout(cls);
+            List<TemplateChild> children = getTemplateChildren(cls);
+            MemoryLayout instanceLayout = getTemplateInstanceLayout(cls, children);
             Class<?> parentClass = cls.getSuperclass();
             Type parentType = TypeCache.getType(parentClass);
             MemoryLayout classLayout = generateClassLayout(cls);
@@ -356,7 +390,7 @@ public class TemplateTypes {
             var overridesInit = Overrides.overrideClassMethods(cls);
             var propertiesInit = new Properties().installProperties(cls);
             var signalsInit = Signals.installSignals(cls);
-            var templateClassInit = getTemplateClassInit(cls, instanceLayout);
+            var templateClassInit = getTemplateClassInit(cls, instanceLayout, children);
             var userDefinedClassInit = getClassInit(cls);
 
             // Override virtual methods, install properties and signals, and
@@ -372,7 +406,7 @@ public class TemplateTypes {
             };
 
             // Chain template instance init with user-defined init function
-            Consumer<W> templateInit = getTemplateInstanceInit(cls);
+            Consumer<W> templateInit = getTemplateInstanceInit(cls, children);
             Consumer<W> userDefinedInit = getInstanceInit(cls);
             Consumer<TypeInstance> instanceInit = typeInstance -> {
                 @SuppressWarnings("unchecked") // Class will always be a Widget